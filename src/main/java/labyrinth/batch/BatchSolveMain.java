@@ -0,0 +1,179 @@
+package labyrinth.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import labyrinth.model.LabyrinthStateLoader;
+import labyrinth.model.Level;
+import labyrinth.solver.SearchMode;
+import labyrinth.solver.Solution;
+import org.tinylog.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Loads and solves every level file of a directory in parallel, and streams
+ * one JSON Lines record per level. Besides the solution, each record contains
+ * the number of dead-end squares, so that trap-heavy levels can be rejected.
+ * A level that can not be loaded or solved is reported in its own record, so
+ * it does not stop the others.
+ *
+ * <p>Usage: {@code BatchSolveMain <levels-dir> [--out=<file>] [--mode=<mode>] [--threads=<n>]}.
+ * Without {@code --out} the records are written to the standard output.</p>
+ */
+public class BatchSolveMain {
+
+    private static final ObjectWriter WRITER = new ObjectMapper().writerFor(LevelReport.class);
+
+    private final SearchMode mode;
+    private final int threads;
+
+    /**
+     * Creates a {@code BatchSolveMain} object.
+     *
+     * @param mode the search algorithm used for solving the levels
+     * @param threads the number of worker threads
+     */
+    public BatchSolveMain(SearchMode mode, int threads) {
+        this.mode = mode;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: BatchSolveMain <levels-dir> [--out=<file>] [--mode=<mode>] [--threads=<n>]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Path out = null;
+        SearchMode mode = SearchMode.BIDIRECTIONAL;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--out=")) {
+                out = Path.of(arg.substring("--out=".length()));
+            } else if (arg.startsWith("--mode=")) {
+                mode = SearchMode.valueOf(arg.substring("--mode=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        var batch = new BatchSolveMain(mode, threads);
+        if (out == null) {
+            // System.out must stay open, so the writer is only flushed
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            batch.run(directory, writer);
+            writer.flush();
+        } else {
+            try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                batch.run(directory, writer);
+            }
+        }
+    }
+
+    /**
+     * Solves every {@code .json} file below a directory and writes one JSON
+     * Lines record per level as soon as it is solved.
+     *
+     * @param directory the directory containing the level files
+     * @param writer the writer to which the records are written
+     * @return the number of levels processed
+     * @throws IOException if the directory cannot be read
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public int run(Path directory, Writer writer) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(directory)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .toList();
+        }
+        Logger.info("Solving {} levels on {} threads using {}", files.size(), threads, mode);
+
+        var processed = new AtomicInteger();
+        var pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> files.parallelStream()
+                    .map(this::solve)
+                    .forEach(report -> {
+                        write(writer, report);
+                        processed.incrementAndGet();
+                    }))
+                    .get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        writer.flush();
+        Logger.info("Solved {} levels", processed.get());
+        return processed.get();
+    }
+
+    /**
+     * {@return the report of a single level file}
+     * @param file the path of the level file
+     */
+    public LevelReport solve(Path file) {
+        long begin = System.nanoTime();
+        Level level;
+        try {
+            level = LabyrinthStateLoader.loadLevelFromFile(file);
+        } catch (IOException | RuntimeException e) {
+            Logger.warn("Failed to load level {}: {}", file, e.toString());
+            return LevelReport.notSolved(file.toString(), LevelReport.Status.ERROR, millisSince(begin), 0,
+                    e.toString());
+        }
+        long loaded = System.nanoTime();
+        if (level.getBallCount() > 1) {
+            Logger.warn("Skipping level {} with {} balls", file, level.getBallCount());
+            return LevelReport.notSolved(file.toString(), LevelReport.Status.UNSUPPORTED, (loaded - begin) / 1e6, 0,
+                    "Levels with several balls are not supported");
+        }
+        Solution solution;
+        int deadEnds;
+        try {
+            solution = mode.newSolver().solve(level, level.getBlueBall());
+            deadEnds = level.getGoalDistances().getDeadEndCount();
+        } catch (RuntimeException e) {
+            Logger.error(e, "Failed to solve level {}", file);
+            return LevelReport.notSolved(file.toString(), LevelReport.Status.ERROR, (loaded - begin) / 1e6,
+                    millisSince(loaded), e.toString());
+        }
+        return new LevelReport(file.toString(), LevelReport.Status.SOLVED, solution.isSolvable(),
+                solution.getMoveCount(), solution.expanded(), deadEnds, (loaded - begin) / 1e6, millisSince(loaded), null);
+    }
+
+    private static double millisSince(long begin) {
+        return (System.nanoTime() - begin) / 1e6;
+    }
+
+    private static void write(Writer writer, LevelReport report) {
+        try {
+            String line = WRITER.writeValueAsString(report);
+            synchronized (writer) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
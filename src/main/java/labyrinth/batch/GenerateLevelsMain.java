@@ -0,0 +1,97 @@
+package labyrinth.batch;
+
+import labyrinth.generator.LevelGenerator;
+import labyrinth.model.LabyrinthStateWriter;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Generates level files in parallel, in the format read by
+ * {@link labyrinth.model.LabyrinthStateLoader}.
+ *
+ * <p>Usage: {@code GenerateLevelsMain <out-dir> <count> [--size=<n>] [--moves=<n>]
+ * [--density=<p>] [--seed=<n>] [--threads=<n>]}. Level {@code i} is generated
+ * from the seed {@code seed + i}, so the output does not depend on the number
+ * of threads.</p>
+ */
+public class GenerateLevelsMain {
+
+    private static final int MAX_ATTEMPTS = 100;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: GenerateLevelsMain <out-dir> <count> [--size=<n>] [--moves=<n>]"
+                    + " [--density=<p>] [--seed=<n>] [--threads=<n>]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        int count = Integer.parseInt(args[1]);
+        int size = 7;
+        int moves = 6;
+        double density = 0.15;
+        long seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 2; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            switch (option[0]) {
+                case "--size" -> size = Integer.parseInt(option[1]);
+                case "--moves" -> moves = Integer.parseInt(option[1]);
+                case "--density" -> density = Double.parseDouble(option[1]);
+                case "--seed" -> seed = Long.parseLong(option[1]);
+                case "--threads" -> threads = Integer.parseInt(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Files.createDirectories(directory);
+        var generator = new LevelGenerator(size, moves, density, MAX_ATTEMPTS);
+        int written = generate(generator, directory, count, seed, threads);
+        Logger.info("Generated {} of {} levels in {}", written, count, directory);
+    }
+
+    /**
+     * Generates levels and writes each one to {@code level-<i>.json}.
+     *
+     * @param generator the generator of the levels
+     * @param directory the directory to which the level files are written
+     * @param count the number of levels to generate
+     * @param seed the seed of the first level
+     * @param threads the number of worker threads
+     * @return the number of levels written
+     * @throws IOException if any I/O error occurs
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public static int generate(LevelGenerator generator, Path directory, int count, long seed, int threads)
+            throws IOException, InterruptedException {
+        var written = new AtomicInteger();
+        var pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(i ->
+                    generator.generate(seed + i).ifPresentOrElse(level -> {
+                        try {
+                            LabyrinthStateWriter.writeToFile(level, directory.resolve("level-" + i + ".json"));
+                            written.incrementAndGet();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, () -> Logger.warn("No level found for seed {}", seed + i))))
+                    .get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return written.get();
+    }
+}
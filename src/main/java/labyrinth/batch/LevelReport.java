@@ -0,0 +1,50 @@
+package labyrinth.batch;
+
+/**
+ * Represents the outcome of solving a single level file.
+ *
+ * @param file the path of the level file
+ * @param status whether the level has been solved, and if not, why
+ * @param solvable whether the goal is reachable from the blue ball, or {@code null} if the level
+ *                 has not been solved
+ * @param moves the optimal number of moves, or {@code -1} if the level is not solvable or has not
+ *              been solved
+ * @param expanded the number of squares expanded by the search
+ * @param deadEnds the number of squares from which the goal can not be reached
+ * @param loadMillis the time spent loading the level in milliseconds
+ * @param solveMillis the time spent solving the level in milliseconds
+ * @param error the error message if the level could not be loaded or solved, {@code null} otherwise
+ */
+public record LevelReport(String file, Status status, Boolean solvable, int moves, int expanded, int deadEnds,
+                          double loadMillis, double solveMillis, String error) {
+
+    /**
+     * Represents whether a level has been solved.
+     */
+    public enum Status {
+        /**
+         * The level has been solved, {@code solvable} tells whether the goal is reachable.
+         */
+        SOLVED,
+        /**
+         * The level has several balls, which the solvers do not support.
+         */
+        UNSUPPORTED,
+        /**
+         * The level could not be loaded or the solver failed.
+         */
+        ERROR
+    }
+
+    /**
+     * {@return the report of a level that has not been solved}
+     * @param file the path of the level file
+     * @param status the reason why the level has not been solved
+     * @param loadMillis the time spent loading the level in milliseconds
+     * @param solveMillis the time spent trying to solve the level in milliseconds
+     * @param error the error message
+     */
+    static LevelReport notSolved(String file, Status status, double loadMillis, double solveMillis, String error) {
+        return new LevelReport(file, status, null, -1, 0, 0, loadMillis, solveMillis, error);
+    }
+}
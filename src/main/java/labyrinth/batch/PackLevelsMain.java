@@ -0,0 +1,69 @@
+package labyrinth.batch;
+
+import labyrinth.model.LabyrinthStateLoader;
+import labyrinth.model.LevelPack;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Converts level files in the format read by
+ * {@link labyrinth.model.LabyrinthStateLoader} into a {@link LevelPack}.
+ *
+ * <p>Usage: {@code PackLevelsMain <out.pack> <level.json | dir>...}. The files
+ * of a directory are added in the order of their names, so level {@code i} of
+ * the pack is the {@code i}-th file listed.</p>
+ */
+public class PackLevelsMain {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PackLevelsMain <out.pack> <level.json | dir>...");
+            System.exit(2);
+        }
+        List<Path> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            files.addAll(listLevelFiles(Path.of(args[i])));
+        }
+        Path pack = Path.of(args[0]);
+        long start = System.nanoTime();
+        pack(files, pack);
+        Logger.info("Packed {} levels into {} in {} ms", files.size(), pack, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * {@return the level file itself, or the JSON files of a directory sorted by name}
+     * @param path the path of a level file or a directory
+     * @throws IOException if any I/O error occurs
+     */
+    public static List<Path> listLevelFiles(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> paths = Files.list(path)) {
+            return paths.filter(p -> p.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Writes level files into a level pack, in the order given.
+     *
+     * @param files the level files
+     * @param pack the path of the level-pack file
+     * @throws IOException if any I/O error occurs
+     */
+    public static void pack(List<Path> files, Path pack) throws IOException {
+        try (var writer = new LevelPack.Writer(pack, files.size())) {
+            for (Path file : files) {
+                writer.add(LabyrinthStateLoader.loadLevelFromFile(file));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package labyrinth.batch;
+
+import labyrinth.model.LevelRegistry;
+import labyrinth.results.GameResultRepository;
+import labyrinth.results.ReplayArchive;
+import labyrinth.results.ReplayVerifier;
+import org.tinylog.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Verifies the stored game results against their replays. Each replay is
+ * checked against the level it was recorded on; replays recorded before levels
+ * were identified are checked against the default level.
+ *
+ * <p>Usage: {@code VerifyResultsMain [results.json] [replays.bin] [--threads=<n>]}.
+ * Every invalid result is printed with its verdict, and the exit status is
+ * {@code 1} if there is any.</p>
+ */
+public class VerifyResultsMain {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String results = "results.json";
+        String replays = "replays.bin";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int positional = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (positional++ == 0) {
+                results = arg;
+            } else {
+                replays = arg;
+            }
+        }
+
+        var repository = GameResultRepository.getInstance();
+        repository.loadFromFile(new File(results));
+        var verifier = new ReplayVerifier(LevelRegistry.getInstance().getResource("/labyrinth.json"), threads);
+        long begin = System.nanoTime();
+        var report = verifier.verifyAll(repository.getAll(), new ReplayArchive(Path.of(replays)));
+        Logger.info("Verified {} results in {} ms: {} valid, {} invalid",
+                report.valid() + report.invalid().size(), (System.nanoTime() - begin) / 1_000_000,
+                report.valid(), report.invalid().size());
+        report.invalid().forEach((id, verdict) -> System.out.printf("%d\t%s%n", id, verdict));
+        if (!report.invalid().isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains the headless command line tools working on level files.
+ */
+package labyrinth.batch;
@@ -0,0 +1,103 @@
+package labyrinth.generator;
+
+import labyrinth.model.Level;
+import labyrinth.model.Position;
+import labyrinth.model.SlideTable;
+import labyrinth.model.Wall;
+import labyrinth.model.WallGrid;
+import labyrinth.solver.BreadthFirstSolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * Generates random levels whose optimal solution takes exactly a target
+ * number of moves.
+ *
+ * <p>Each attempt places random walls, then runs a single breadth-first search
+ * from a random start. That search yields the optimal move count of every
+ * square the ball can stop on, so every possible goal of the attempt is
+ * checked at once, and the chosen goal is solvable by construction.</p>
+ */
+public class LevelGenerator {
+
+    private static final int STARTS_PER_LAYOUT = 8;
+
+    private final int boardSize;
+    private final int targetMoves;
+    private final double wallDensity;
+    private final int maxAttempts;
+
+    /**
+     * Creates a {@code LevelGenerator} object.
+     *
+     * @param boardSize the size of the generated boards
+     * @param targetMoves the optimal number of moves of the generated levels
+     * @param wallDensity the probability of a wall on the right and on the bottom side of each square
+     * @param maxAttempts the maximum number of wall layouts tried for a level
+     */
+    public LevelGenerator(int boardSize, int targetMoves, double wallDensity, int maxAttempts) {
+        if (boardSize <= 0 || targetMoves <= 0 || wallDensity < 0 || wallDensity > 1 || maxAttempts <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.boardSize = boardSize;
+        this.targetMoves = targetMoves;
+        this.wallDensity = wallDensity;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Generates a level. The same seed always yields the same level.
+     *
+     * @param seed the seed of the random generator
+     * @return the level, or an empty {@code Optional} if no level with the target
+     * move count was found within the maximum number of attempts
+     */
+    public Optional<Level> generate(long seed) {
+        var random = new SplittableRandom(seed);
+        int cells = boardSize * boardSize;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            WallGrid walls = randomWalls(random);
+            SlideTable slides = SlideTable.of(walls);
+            for (int i = 0; i < STARTS_PER_LAYOUT; i++) {
+                int start = random.nextInt(cells);
+                int[] distance = BreadthFirstSolver.distancesFrom(slides, start);
+                int goal = pickGoal(random, distance);
+                if (goal != -1) {
+                    return Optional.of(new Level(boardSize, walls,
+                            Position.of(start / boardSize, start % boardSize),
+                            Position.of(goal / boardSize, goal % boardSize)));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private WallGrid randomWalls(SplittableRandom random) {
+        List<Wall> walls = new ArrayList<>();
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                if (col < boardSize - 1 && random.nextDouble() < wallDensity) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.RIGHT));
+                }
+                if (row < boardSize - 1 && random.nextDouble() < wallDensity) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.BOTTOM));
+                }
+            }
+        }
+        return WallGrid.of(boardSize, walls);
+    }
+
+    private int pickGoal(SplittableRandom random, int[] distance) {
+        int candidates = 0;
+        int goal = -1;
+        for (int cell = 0; cell < distance.length; cell++) {
+            if (distance[cell] == targetMoves && random.nextInt(++candidates) == 0) {
+                goal = cell;
+            }
+        }
+        return goal;
+    }
+}
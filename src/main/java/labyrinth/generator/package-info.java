@@ -0,0 +1,4 @@
+/**
+ * Contains the classes for generating labyrinth levels.
+ */
+package labyrinth.generator;
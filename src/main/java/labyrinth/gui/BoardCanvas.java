@@ -0,0 +1,233 @@
+package labyrinth.gui;
+
+import javafx.beans.InvalidationListener;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import labyrinth.model.LabyrinthState;
+import labyrinth.model.Position;
+import labyrinth.util.javafx.ScaledImageCache;
+import lombok.Setter;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Draws the board on a single {@link Canvas}. Only the squares inside the
+ * viewport are drawn, so the cost of a frame does not depend on the size of
+ * the board. The view can be panned by dragging and zoomed with the mouse
+ * wheel, and clicks are mapped back to squares by arithmetic hit-testing.
+ * Squares are copied from a {@link WallTileAtlas} and the pieces from a
+ * {@link ScaledImageCache}, both kept at the current square size.
+ */
+public class BoardCanvas extends Pane {
+
+    private static final double DEFAULT_SQUARE_SIZE = 40.0;
+    private static final double MIN_SQUARE_SIZE = 4.0;
+    private static final double MAX_SQUARE_SIZE = 150.0;
+    private static final double ZOOM_FACTOR = 1.1;
+
+    private final Canvas canvas = new Canvas();
+    private final InvalidationListener ballListener = observable -> handleBallMoved();
+
+    private LabyrinthState state;
+    private ScaledImageCache imageCache;
+    private WallTileAtlas atlas;
+    private double squareSize = DEFAULT_SQUARE_SIZE;
+    private double offsetX;
+    private double offsetY;
+    private double dragX;
+    private double dragY;
+    private boolean centerPending;
+
+    /**
+     * The action to be performed when a square is clicked.
+     */
+    @Setter
+    private Consumer<Position> onSquareClicked;
+
+    /**
+     * Creates a {@code BoardCanvas} object.
+     */
+    public BoardCanvas() {
+        getChildren().add(canvas);
+        setPrefSize(600.0, 600.0);
+        setMinSize(0.0, 0.0);
+        setOnScroll(this::handleScroll);
+        setOnMousePressed(this::handleMousePressed);
+        setOnMouseDragged(this::handleMouseDragged);
+        setOnMouseClicked(this::handleMouseClicked);
+    }
+
+    /**
+     * Sets the cache of the images of the pieces, indexed by {@link LabyrinthState#BLUE_BALL} and
+     * {@link LabyrinthState#GOAL_POSITION}. The view is redrawn whenever an image has been loaded.
+     * @param imageCache the image cache
+     */
+    public void setImageCache(ScaledImageCache imageCache) {
+        this.imageCache = imageCache;
+        imageCache.setOnLoaded(this::redraw);
+    }
+
+    /**
+     * Sets the state to be drawn and centers the view on the blue ball.
+     * @param state the state of the labyrinth
+     */
+    public void setState(LabyrinthState state) {
+        if (this.state != null) {
+            for (int i = 0; i < this.state.getBallCount(); i++) {
+                this.state.ballProperty(i).removeListener(ballListener);
+            }
+        }
+        this.state = state;
+        for (int i = 0; i < state.getBallCount(); i++) {
+            state.ballProperty(i).addListener(ballListener);
+        }
+        squareSize = DEFAULT_SQUARE_SIZE;
+        centerPending = true;
+        requestLayout();
+    }
+
+    /**
+     * {@return the square at the specified point of the canvas, or an empty {@code Optional} if the
+     * point is outside of the board}
+     * @param x the horizontal coordinate of the point
+     * @param y the vertical coordinate of the point
+     */
+    public Optional<Position> squareAt(double x, double y) {
+        if (state == null) {
+            return Optional.empty();
+        }
+        int row = (int) Math.floor((y + offsetY) / squareSize);
+        int col = (int) Math.floor((x + offsetX) / squareSize);
+        if (row < 0 || row >= state.getBoardSize() || col < 0 || col >= state.getBoardSize()) {
+            return Optional.empty();
+        }
+        return Optional.of(Position.of(row, col));
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.setWidth(getWidth());
+        canvas.setHeight(getHeight());
+        if (centerPending && state != null && getWidth() > 0) {
+            centerOn(state.getPosition(LabyrinthState.BLUE_BALL));
+            centerPending = false;
+        }
+        redraw();
+    }
+
+    private void centerOn(Position position) {
+        offsetX = (position.col() + 0.5) * squareSize - getWidth() / 2;
+        offsetY = (position.row() + 0.5) * squareSize - getHeight() / 2;
+        clampOffsets();
+    }
+
+    private void clampOffsets() {
+        double boardExtent = state.getBoardSize() * squareSize;
+        offsetX = Math.max(-getWidth() / 2, Math.min(offsetX, boardExtent - getWidth() / 2));
+        offsetY = Math.max(-getHeight() / 2, Math.min(offsetY, boardExtent - getHeight() / 2));
+    }
+
+    private void handleBallMoved() {
+        var ball = state.getPosition(LabyrinthState.BLUE_BALL);
+        double x = ball.col() * squareSize - offsetX;
+        double y = ball.row() * squareSize - offsetY;
+        if (x < 0 || y < 0 || x + squareSize > getWidth() || y + squareSize > getHeight()) {
+            centerOn(ball);
+        }
+        redraw();
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        if (state == null || event.getDeltaY() == 0) {
+            return;
+        }
+        double factor = event.getDeltaY() > 0 ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+        double newSize = Math.max(MIN_SQUARE_SIZE, Math.min(MAX_SQUARE_SIZE, squareSize * factor));
+        offsetX = (event.getX() + offsetX) / squareSize * newSize - event.getX();
+        offsetY = (event.getY() + offsetY) / squareSize * newSize - event.getY();
+        squareSize = newSize;
+        clampOffsets();
+        redraw();
+        event.consume();
+    }
+
+    private void handleMousePressed(MouseEvent event) {
+        dragX = event.getX();
+        dragY = event.getY();
+    }
+
+    private void handleMouseDragged(MouseEvent event) {
+        if (state == null) {
+            return;
+        }
+        offsetX -= event.getX() - dragX;
+        offsetY -= event.getY() - dragY;
+        dragX = event.getX();
+        dragY = event.getY();
+        clampOffsets();
+        redraw();
+    }
+
+    private void handleMouseClicked(MouseEvent event) {
+        if (event.getButton() != MouseButton.PRIMARY || !event.isStillSincePress() || onSquareClicked == null) {
+            return;
+        }
+        squareAt(event.getX(), event.getY()).ifPresent(onSquareClicked);
+    }
+
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+        if (state == null) {
+            return;
+        }
+        int boardSize = state.getBoardSize();
+        int firstRow = Math.max(0, (int) Math.floor(offsetY / squareSize));
+        int lastRow = Math.min(boardSize - 1, (int) Math.floor((offsetY + height) / squareSize));
+        int firstCol = Math.max(0, (int) Math.floor(offsetX / squareSize));
+        int lastCol = Math.min(boardSize - 1, (int) Math.floor((offsetX + width) / squareSize));
+        if (firstRow > lastRow || firstCol > lastCol) {
+            return;
+        }
+        int tileSize = (int) Math.ceil(squareSize);
+        if (atlas == null || atlas.getTileSize() != tileSize) {
+            atlas = WallTileAtlas.of(tileSize);
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            double y = row * squareSize - offsetY;
+            for (int col = firstCol; col <= lastCol; col++) {
+                atlas.draw(gc, state.getWallMaskAtPosition(row, col), col * squareSize - offsetX, y, squareSize);
+            }
+        }
+
+        if (imageCache == null) {
+            return;
+        }
+        imageCache.setSize(tileSize);
+        Image goalImage = imageCache.get(LabyrinthState.GOAL_POSITION);
+        Image ballImage = imageCache.get(LabyrinthState.BLUE_BALL);
+        drawPiece(gc, goalImage, state.getPosition(LabyrinthState.GOAL_POSITION), 1.0);
+        for (int i = state.getBallCount() - 1; i >= 0; i--) {
+            drawPiece(gc, ballImage, state.ballProperty(i).get(), i == LabyrinthState.BLUE_BALL ? 1.0 : 0.5);
+        }
+    }
+
+    private void drawPiece(GraphicsContext gc, Image image, Position position, double alpha) {
+        double x = position.col() * squareSize - offsetX;
+        double y = position.row() * squareSize - offsetY;
+        if (image == null || x + squareSize < 0 || y + squareSize < 0 || x > canvas.getWidth() || y > canvas.getHeight()) {
+            return;
+        }
+        gc.setGlobalAlpha(alpha);
+        gc.drawImage(image, x, y, squareSize, squareSize);
+        gc.setGlobalAlpha(1.0);
+    }
+}
@@ -5,6 +5,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import labyrinth.results.GameResultRepository;
 import org.tinylog.Logger;
 
 public class GameApplication extends Application {
@@ -12,10 +13,22 @@ public class GameApplication extends Application {
     @Override
     public void start(Stage stage) throws Exception {
         Logger.info("Starting application");
+        GameResultRepository.getInstance().openInBackground(GameController.RESULTS_FILE)
+                .whenComplete((results, error) -> {
+                    if (error != null) {
+                        Logger.warn("Error reading file {}!", GameController.RESULTS_FILE);
+                    }
+                });
         Parent root = FXMLLoader.load(getClass().getResource("/fxml/opening.fxml"));
         stage.setTitle("Thesus Find the Exit");
         stage.setScene(new Scene(root));
         stage.setResizable(false);
         stage.show();
     }
+
+    @Override
+    public void stop() throws Exception {
+        Logger.info("Writing pending game results");
+        GameResultRepository.getInstance().close();
+    }
 }
@@ -2,7 +2,6 @@ package labyrinth.gui;
 
 import javafx.animation.Animation;
 import javafx.application.Platform;
-import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.*;
 import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
@@ -18,21 +17,28 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import labyrinth.model.LabyrinthState;
+import labyrinth.model.Level;
+import labyrinth.model.LevelId;
+import labyrinth.model.LevelRegistry;
 import labyrinth.model.MoveDirection;
 import labyrinth.model.Position;
 import labyrinth.results.GameResult;
 import labyrinth.results.GameResultRepository;
+import labyrinth.results.Replay;
+import labyrinth.results.ReplayArchive;
+import labyrinth.results.ReplayRecorder;
 import labyrinth.util.javafx.ControllerHelper;
-import labyrinth.util.javafx.ImageStorage;
-import labyrinth.util.javafx.OrdinalImageStorage;
+import labyrinth.util.javafx.ScaledImageCache;
 import labyrinth.util.javafx.Stopwatch;
+import labyrinth.util.repository.FileSystemRepository;
 import lombok.NonNull;
 import lombok.Setter;
 import org.tinylog.Logger;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
@@ -40,14 +46,40 @@ import java.util.Optional;
 
 public class GameController {
 
+    /**
+     * The largest board size that is displayed by a {@code GridPane} of squares, which is the number
+     * of rows and columns laid out in {@code game.fxml}. Larger boards are drawn on a {@link BoardCanvas}.
+     */
+    private static final int MAX_GRID_PANE_BOARD_SIZE = 7;
+
+    /**
+     * The file the results are stored in. The results are appended to its journal by a background
+     * writer, so storing a result does not wait for the disk.
+     */
+    static final File RESULTS_FILE = new File("results.json");
+
+    /**
+     * The size of the pieces drawn on the squares of the {@code GridPane}.
+     */
+    private static final int PIECE_SIZE = 75;
+
+    /**
+     * The size of the wall tiles of the {@code GridPane}, which are scaled to the size of the squares.
+     */
+    private static final int GRID_TILE_SIZE = 100;
+
     @FXML
     private GridPane grid;
     @FXML
+    private BoardCanvas boardCanvas;
+    @FXML
     private TextField numberOfMovesField;
     @FXML
     private Button giveupFinishButton;
     @FXML
     private Button resetButton;
+    @FXML
+    private Button hintButton;
 
     @FXML
     private Label stopwatchLabel;
@@ -64,11 +96,23 @@ public class GameController {
 
     private Instant startTime;
 
-    private ImageStorage<Integer> imageStorage = new OrdinalImageStorage("/images",
+    private ScaledImageCache imageStorage = new ScaledImageCache("/images",
             "ball.png",
             "goal.png");
+    private WallTileAtlas gridAtlas;
+    private Level level;
+    private LevelId levelId;
+
     private LabyrinthState state;
 
+    private ImageView[][] pieceViews;
+    private ImageView[] otherBallViews;
+    private int[] otherBallCounts;
+
+    private ReplayRecorder replayRecorder = new ReplayRecorder();
+
+    private ReplayArchive replayArchive = new ReplayArchive(Path.of("replays.bin"));
+
     private IntegerProperty numberOfMoves = new SimpleIntegerProperty(0);
     private FXMLLoader fxmlLoader = new FXMLLoader();
     private boolean isSolved;
@@ -77,34 +121,77 @@ public class GameController {
     private void initialize() {
         isSolved = false;
         createControlBindings();
+        createBoardCanvas();
         registerKeyEventHandler();
         restartGame();
     }
 
+    private void createBoardCanvas() {
+        boardCanvas.setImageCache(imageStorage);
+        boardCanvas.setOnSquareClicked(position -> handleSquareClick(position.row(), position.col()));
+    }
+
     private void createControlBindings() {
         numberOfMovesField.textProperty().bind(numberOfMoves.asString());
         stopwatchLabel.textProperty().bind(stopwatch.hhmmssProperty());
     }
 
     private void restartGame() {
-        state = new LabyrinthState();
+        if (level == null) {
+            var entry = loadLevel();
+            level = entry.level();
+            levelId = entry.id();
+        }
+        var previous = state;
+        state = new LabyrinthState(level);
         state.goalProperty().addListener(this::handleGameOver);
         numberOfMoves.set(0);
+        replayRecorder.clear();
+        playerGreeting.setText("Good Luck!");
+        hintButton.setDisable(state.getBallCount() > 1);
 
         startTime = Instant.now();
         if (stopwatch.getStatus() == Animation.Status.PAUSED) {
             stopwatch.reset();
         }
         stopwatch.start();
-        clearGrid();
-        populateGrid();
+        boolean useGridPane = state.getBoardSize() <= MAX_GRID_PANE_BOARD_SIZE;
+        grid.setVisible(useGridPane);
+        grid.setManaged(useGridPane);
+        boardCanvas.setVisible(!useGridPane);
+        boardCanvas.setManaged(!useGridPane);
+        if (useGridPane) {
+            imageStorage.setSize(PIECE_SIZE);
+            if (previous != null && previous.getLevel() == level && pieceViews != null) {
+                resetPieceViews(previous);
+            } else {
+                clearGrid();
+                populateGrid();
+            }
+        } else {
+            boardCanvas.setState(state);
+        }
+    }
+
+    private LevelRegistry.Entry loadLevel() {
+        var file = System.getProperty("labyrinth.level");
+        if (file != null) {
+            try {
+                return LevelRegistry.getInstance().loadFile(Path.of(file));
+            } catch (IOException e) {
+                Logger.error("Error reading level {}, using the default level", file);
+            }
+        }
+        return LevelRegistry.getInstance().loadResource("/labyrinth.json");
     }
 
     @FXML
     private void handleMouseClick(MouseEvent event) {
         var source = (Node) event.getSource();
-        var row = GridPane.getRowIndex(source);
-        var col = GridPane.getColumnIndex(source);
+        handleSquareClick(GridPane.getRowIndex(source), GridPane.getColumnIndex(source));
+    }
+
+    private void handleSquareClick(int row, int col) {
         Logger.debug("Click on square ({},{})", row, col);
         var direction = getDirectionFromClick(row, col);
         direction.ifPresentOrElse(this::performMove,
@@ -114,6 +201,8 @@ public class GameController {
     private void registerKeyEventHandler() {
         final KeyCombination restartKeyCombination = new KeyCodeCombination(KeyCode.R, KeyCombination.CONTROL_DOWN);
         final KeyCombination quitKeyCombination = new KeyCodeCombination(KeyCode.Q, KeyCombination.CONTROL_DOWN);
+        final KeyCombination undoKeyCombination = new KeyCodeCombination(KeyCode.Z, KeyCombination.CONTROL_DOWN);
+        final KeyCombination redoKeyCombination = new KeyCodeCombination(KeyCode.Y, KeyCombination.CONTROL_DOWN);
         Platform.runLater(() -> grid.getScene().setOnKeyPressed(
                 keyEvent -> {
                     if (isSolved) {
@@ -125,6 +214,15 @@ public class GameController {
                     } else if (quitKeyCombination.match(keyEvent)) {
                         Logger.debug("Exiting...");
                         Platform.exit();
+                    } else if (undoKeyCombination.match(keyEvent)) {
+                        Logger.debug("Undoing move...");
+                        undoMove();
+                    } else if (redoKeyCombination.match(keyEvent)) {
+                        Logger.debug("Redoing move...");
+                        redoMove();
+                    } else if (keyEvent.getCode() == KeyCode.H) {
+                        Logger.debug("Hint requested");
+                        showHint();
                     } else if (keyEvent.getCode() == KeyCode.UP) {
                         Logger.debug("Up arrow pressed");
                         performMove(MoveDirection.UP);
@@ -143,16 +241,63 @@ public class GameController {
     }
 
     private void performMove(MoveDirection moveDirection) {
-        if (state.canMove(moveDirection, state.getPosition(state.BLUE_BALL))) {
+        if (state.canMove(moveDirection)) {
             Logger.info("Moving {}", moveDirection);
             state.move(moveDirection);
             Logger.trace("New state: {}", state);
             numberOfMoves.set(numberOfMoves.get() + 1);
+            recordLastMove();
+            updateDeadEndGreeting();
         } else {
             Logger.warn("Invalid move: {}", moveDirection);
         }
     }
 
+    private void recordLastMove() {
+        var history = state.getHistory();
+        int index = history.getPosition() - 1;
+        replayRecorder.record(index, history.getMove(index), Duration.between(startTime, Instant.now()).toMillis());
+    }
+
+    private void updateDeadEndGreeting() {
+        if (state.isDeadEnd(state.getPosition(LabyrinthState.BLUE_BALL))) {
+            Logger.info("{} is stuck in a dead end", playerName);
+            playerGreeting.setText("Dead end! Press Reset or Ctrl+Z.");
+        } else {
+            playerGreeting.setText("Good Luck!");
+        }
+    }
+
+    private void showHint() {
+        state.hint(state.getPosition(LabyrinthState.BLUE_BALL)).ifPresentOrElse(
+                direction -> playerGreeting.setText("Hint: move " + direction.name().toLowerCase()),
+                () -> playerGreeting.setText("No hint available, press Reset."));
+    }
+
+    public void handleHintButton(ActionEvent actionEvent) {
+        Logger.debug("{} is pressed", ((Button) actionEvent.getSource()).getText());
+        showHint();
+    }
+
+    private void undoMove() {
+        if (state.undo()) {
+            numberOfMoves.set(state.getHistory().getPosition());
+            updateDeadEndGreeting();
+        } else {
+            Logger.warn("No move to undo");
+        }
+    }
+
+    private void redoMove() {
+        if (state.redo()) {
+            numberOfMoves.set(state.getHistory().getPosition());
+            recordLastMove();
+            updateDeadEndGreeting();
+        } else {
+            Logger.warn("No move to redo");
+        }
+    }
+
     private void handleGameOver(ObservableValue<? extends Boolean> observableValue, Boolean oldValue, Boolean newValue) {
         Platform.runLater(() -> {
             if (newValue) {
@@ -160,6 +305,7 @@ public class GameController {
                 playerGreeting.setText("Congratulations!");
                 stopwatch.stop();
                 resetButton.setDisable(true);
+                hintButton.setDisable(true);
                 isSolved = true;
                 giveupFinishButton.setText("Finish");
             }
@@ -187,22 +333,33 @@ public class GameController {
         );
     }
 
+    /**
+     * Stores the result and the replay of the game once the repository is opened. If it is still
+     * being opened in the background, they are stored by the opening thread when it finishes, so the
+     * FX thread never waits for the disk.
+     */
     private void storeResult(){
         Logger.info("Storing game results for player {}", playerName);
 
-        var file = new File("results.json");
+        var result = createGameResult();
+        var replay = replayRecorder.toReplay(0, state.getHistory().getPosition(), levelId);
+        gameResultRepository.openInBackground(RESULTS_FILE)
+                .whenComplete((results, error) -> storeResult(result, replay));
+    }
+
+    private void storeResult(GameResult result, Replay replay) {
         try {
-            gameResultRepository.loadFromFile(file);
-        } catch (FileNotFoundException e) {
-            Logger.warn("File {} was not found, creating one!", file);
-        } catch (IOException e){
-            Logger.warn("Error reading file {}!", file);
+            if (!gameResultRepository.addOne(result)) {
+                Logger.warn("A result with id {} is already stored, the result is not saved", result.getId());
+                return;
+            }
+        } catch (UncheckedIOException e) {
+            Logger.warn("Error writing file {}!", FileSystemRepository.journalOf(RESULTS_FILE));
         }
-        gameResultRepository.addOne(createGameResult());
         try {
-            gameResultRepository.saveToFile(file);
-        } catch (IOException e){
-            Logger.warn("Error writing file {}!", file);
+            replayArchive.append(new Replay(result.getId(), replay.moves(), replay.millis(), replay.level()));
+        } catch (IOException e) {
+            Logger.warn("Error writing file {}!", replayArchive.getFile());
         }
     }
 
@@ -214,46 +371,96 @@ public class GameController {
     }
 
     private void populateGrid() {
-        for (var row = 0; row < grid.getRowCount(); row++) {
-            for (var col = 0; col < grid.getColumnCount(); col++) {
+        int cells = state.getBoardSize() * state.getBoardSize();
+        if (gridAtlas == null) {
+            gridAtlas = WallTileAtlas.of(GRID_TILE_SIZE);
+        }
+        pieceViews = new ImageView[2][cells];
+        otherBallViews = state.getBallCount() > 1 ? new ImageView[cells] : null;
+        otherBallCounts = state.getBallCount() > 1 ? new int[cells] : null;
+        for (var row = 0; row < state.getBoardSize(); row++) {
+            for (var col = 0; col < state.getBoardSize(); col++) {
                 var square = createSquare(row, col);
                 grid.add(square, col, row);
             }
         }
+        registerPieceListeners();
     }
 
     private StackPane createSquare(int row, int col) {
         var square = new StackPane();
         square.getStyleClass().add("square");
-        var wallDirections = state.getWallDirectionsAtPosition(new Position(row, col));
-        if(!wallDirections.isEmpty()) {
-            for(var wallDirection : wallDirections) {
-                String wallClass = String.valueOf(wallDirection).toLowerCase() + "Wall";
-                square.getStyleClass().add(wallClass);
-            }
-        }
+        var tileView = new ImageView(gridAtlas.getImage());
+        tileView.setViewport(gridAtlas.viewport(state.getWallMaskAtPosition(row, col)));
+        tileView.setManaged(false);
+        tileView.fitWidthProperty().bind(square.widthProperty());
+        tileView.fitHeightProperty().bind(square.heightProperty());
+        square.getChildren().add(tileView);
+        int cell = row * state.getBoardSize() + col;
         for(var i = 0; i < 2; i++) {
-            var pieceView = new ImageView(imageStorage.get(i));
-            pieceView.setFitWidth(75);
-            pieceView.setFitHeight(75);
-            pieceView.visibleProperty().bind(createBindingForPieceAtPosition(i, row, col));
+            var pieceView = createPieceView(i);
+            pieceView.setVisible(state.getPosition(i).equals(new Position(row, col)));
+            pieceViews[i][cell] = pieceView;
             square.getChildren().add(pieceView);
         }
+        if (otherBallViews != null) {
+            var ballView = createPieceView(LabyrinthState.BLUE_BALL);
+            ballView.setOpacity(0.5);
+            ballView.setVisible(false);
+            otherBallViews[cell] = ballView;
+            square.getChildren().add(ballView);
+        }
         square.setOnMouseClicked(this::handleMouseClick);
         return square;
     }
 
-    private BooleanBinding createBindingForPieceAtPosition(int n, int row, int col) {
-        return new BooleanBinding() {
-            {
-                super.bind(state.positionProperty(n));
-            }
-            @Override
-            protected boolean computeValue() {
-                var pos = state.positionProperty(n).get();
-                return pos.row() == row && pos.col() == col;
-            }
-        };
+    private ImageView createPieceView(int n) {
+        return new ImageView(imageStorage.get(n));
+    }
+
+    /**
+     * Registers a single listener per piece, which toggles the visibility of the piece only on the
+     * squares it left and entered, so the cost of a move does not depend on the size of the board.
+     * The other balls share one view per square with a counter, so the result does not depend on the
+     * order in which the positions of balls moving at the same time are updated.
+     */
+    private void registerPieceListeners() {
+        for (var i = 0; i < 2; i++) {
+            var views = pieceViews[i];
+            state.positionProperty(i).addListener((observable, oldPosition, newPosition) -> {
+                views[state.cellOf(oldPosition)].setVisible(false);
+                views[state.cellOf(newPosition)].setVisible(true);
+            });
+        }
+        for (var i = 1; i < state.getBallCount(); i++) {
+            updateOtherBall(state.cellOf(state.ballProperty(i).get()), 1);
+            state.ballProperty(i).addListener((observable, oldPosition, newPosition) -> {
+                updateOtherBall(state.cellOf(oldPosition), -1);
+                updateOtherBall(state.cellOf(newPosition), 1);
+            });
+        }
+    }
+
+    /**
+     * Moves the piece views of a restarted game back to the initial positions, reusing the squares
+     * created for the level.
+     */
+    private void resetPieceViews(LabyrinthState previous) {
+        for (var i = 0; i < 2; i++) {
+            pieceViews[i][previous.cellOf(previous.getPosition(i))].setVisible(false);
+            pieceViews[i][state.cellOf(state.getPosition(i))].setVisible(true);
+        }
+        for (var i = 1; i < previous.getBallCount(); i++) {
+            int cell = previous.cellOf(previous.ballProperty(i).get());
+            otherBallCounts[cell] = 0;
+            otherBallViews[cell].setVisible(false);
+        }
+        registerPieceListeners();
+    }
+
+    private void updateOtherBall(int cell, int change) {
+        otherBallCounts[cell] += change;
+        otherBallViews[cell].setVisible(otherBallCounts[cell] > 0);
     }
 
     private void clearGrid() {
@@ -0,0 +1,98 @@
+package labyrinth.gui;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import labyrinth.model.Wall;
+
+/**
+ * Pre-renders the 16 possible wall combinations of a square into a single
+ * image. The tile of the wall bitmask {@code m}, as returned by
+ * {@link labyrinth.model.WallGrid#wallMask(int, int)}, is the {@code m}-th
+ * square of the image, so a board is drawn by copying tiles instead of
+ * styling every square.
+ */
+public final class WallTileAtlas {
+
+    private static final int TILES = 1 << Wall.Direction.values().length;
+
+    private final int tileSize;
+    private final Image image;
+
+    private WallTileAtlas(int tileSize, Image image) {
+        this.tileSize = tileSize;
+        this.image = image;
+    }
+
+    /**
+     * Renders the tiles. It must be called on the JavaFX application thread.
+     *
+     * @param tileSize the width and height of a tile in pixels
+     * @return the {@code WallTileAtlas} object
+     */
+    public static WallTileAtlas of(int tileSize) {
+        var canvas = new Canvas(TILES * tileSize, tileSize);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double wallWidth = Math.max(2.0, tileSize / 20.0);
+        for (int mask = 0; mask < TILES; mask++) {
+            double x = mask * tileSize;
+            gc.setStroke(Color.GRAY);
+            gc.setLineWidth(1.0);
+            gc.strokeRect(x + 0.5, 0.5, tileSize - 1.0, tileSize - 1.0);
+            gc.setFill(Color.BLACK);
+            if ((mask & 1 << Wall.Direction.RIGHT.ordinal()) != 0) {
+                gc.fillRect(x + tileSize - wallWidth, 0, wallWidth, tileSize);
+            }
+            if ((mask & 1 << Wall.Direction.BOTTOM.ordinal()) != 0) {
+                gc.fillRect(x, tileSize - wallWidth, tileSize, wallWidth);
+            }
+            if ((mask & 1 << Wall.Direction.LEFT.ordinal()) != 0) {
+                gc.fillRect(x, 0, wallWidth, tileSize);
+            }
+            if ((mask & 1 << Wall.Direction.TOP.ordinal()) != 0) {
+                gc.fillRect(x, 0, tileSize, wallWidth);
+            }
+        }
+        var parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return new WallTileAtlas(tileSize, canvas.snapshot(parameters, null));
+    }
+
+    /**
+     * {@return the width and height of a tile in pixels}
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * {@return the image containing all the tiles}
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * {@return the region of the image containing the tile of a wall bitmask}
+     * @param mask a wall bitmask
+     */
+    public Rectangle2D viewport(int mask) {
+        return new Rectangle2D(mask * tileSize, 0, tileSize, tileSize);
+    }
+
+    /**
+     * Draws the tile of a wall bitmask.
+     *
+     * @param gc the graphics context to draw on
+     * @param mask a wall bitmask
+     * @param x the horizontal coordinate of the top left corner of the square
+     * @param y the vertical coordinate of the top left corner of the square
+     * @param size the width and height of the square
+     */
+    public void draw(GraphicsContext gc, int mask, double x, double y, double size) {
+        gc.drawImage(image, mask * tileSize, 0, tileSize, tileSize, x, y, size, size);
+    }
+}
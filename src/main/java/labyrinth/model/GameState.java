@@ -0,0 +1,378 @@
+package labyrinth.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Represents the mutable state of a game played on a {@link Level}. The
+ * class contains no JavaFX types, so it is cheap to create and copy in
+ * simulations.
+ *
+ * <p>The balls are stored as a struct of arrays: the cell index of every
+ * ball is kept in a primitive array, the ball on each square in another one
+ * (only if there are several balls), and the occupied squares in two bitsets,
+ * one in row-major and one in column-major order. All balls slide at the same
+ * time and stop in front of walls and of each other. A move visits the balls
+ * in the order of the occupancy bitset and finds the nearest blocking ball by
+ * a single bit scan, so it does not allocate. The blue ball is the ball with
+ * index {@link #BLUE_BALL}; the puzzle is solved when it reaches the goal.</p>
+ */
+public final class GameState {
+
+    /**
+     * The index of the blue ball.
+     */
+    public static final int BLUE_BALL = 0;
+    /**
+     * The index of the goal position.
+     */
+    public static final int GOAL_POSITION = 1;
+
+    private final Level level;
+    private final int goal;
+    private final int[] balls;
+    private final int[] ballAt;
+    private final BitSet occupied;
+    private final BitSet occupiedByColumn;
+    private MoveHistory history;
+
+    /**
+     * Creates a {@code GameState} object that corresponds to the initial state of a level.
+     * @param level the level
+     */
+    public GameState(Level level) {
+        this.level = level;
+        this.goal = level.cellOf(level.getGoal());
+        int cells = level.getBoardSize() * level.getBoardSize();
+        this.balls = new int[level.getBalls().size()];
+        this.ballAt = balls.length > 1 ? new int[cells] : null;
+        this.occupied = new BitSet(cells);
+        this.occupiedByColumn = new BitSet(cells);
+        reset();
+    }
+
+    private GameState(GameState other) {
+        this.level = other.level;
+        this.goal = other.goal;
+        this.balls = other.balls.clone();
+        this.ballAt = other.ballAt != null ? other.ballAt.clone() : null;
+        this.occupied = (BitSet) other.occupied.clone();
+        this.occupiedByColumn = (BitSet) other.occupiedByColumn.clone();
+    }
+
+    private void reset() {
+        if (ballAt != null) {
+            Arrays.fill(ballAt, -1);
+        }
+        occupied.clear();
+        occupiedByColumn.clear();
+        var positions = level.getBalls();
+        for (int i = 0; i < balls.length; i++) {
+            int cell = level.cellOf(positions.get(i));
+            balls[i] = cell;
+            if (ballAt != null) {
+                ballAt[cell] = i;
+            }
+            occupied.set(cell);
+            occupiedByColumn.set(transpose(cell));
+        }
+    }
+
+    /**
+     * {@return a copy of this state sharing the same level} The copy starts with an empty history.
+     */
+    public GameState copy() {
+        return new GameState(this);
+    }
+
+    /**
+     * {@return the level of the game}
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * {@return the number of balls}
+     */
+    public int getBallCount() {
+        return balls.length;
+    }
+
+    /**
+     * {@return the cell index of the blue ball}
+     */
+    public int getBallCell() {
+        return balls[BLUE_BALL];
+    }
+
+    /**
+     * {@return the cell index of a ball}
+     * @param ball the index of the ball
+     */
+    public int getBallCell(int ball) {
+        return balls[ball];
+    }
+
+    /**
+     * {@return the position of a ball}
+     * @param ball the index of the ball
+     */
+    public Position getBallPosition(int ball) {
+        return level.positionOf(balls[ball]);
+    }
+
+    /**
+     * {@return whether a ball is on the specified square}
+     * @param cell the cell index of the square
+     */
+    public boolean isOccupied(int cell) {
+        return occupied.get(cell);
+    }
+
+    /**
+     * {@return the cell index of the goal}
+     */
+    public int getGoalCell() {
+        return goal;
+    }
+
+    /**
+     * {@return whether the puzzle is solved}
+     */
+    public boolean isGoal() {
+        return balls[BLUE_BALL] == goal;
+    }
+
+    /**
+     * {@return whether the goal can no longer be reached from the current position of the blue ball}
+     * The result is always {@code false} if there are several balls.
+     */
+    public boolean isDeadEnd() {
+        return balls.length == 1 && level.getGoalDistances().isDeadEnd(balls[BLUE_BALL]);
+    }
+
+    /**
+     * {@return the first move of an optimal solution from the current position of the blue ball}
+     * The result is empty if the puzzle is solved, the goal can no longer be reached or there
+     * are several balls.
+     */
+    public Optional<MoveDirection> hint() {
+        return balls.length == 1 ? level.getGoalDistances().hint(balls[BLUE_BALL]) : Optional.empty();
+    }
+
+    /**
+     * {@return whether the blue ball is able to move in the specified direction from the specified position}
+     * @param moveDirection the direction to which the blue ball is moved
+     * @param position the position of the blue ball
+     */
+    public boolean canMove(MoveDirection moveDirection, Position position) {
+        int from = level.cellOf(position);
+        return level.getSlides().stop(from, moveDirection) != from;
+    }
+
+    /**
+     * {@return whether any of the balls is able to move in the specified direction}
+     * A ball moves if and only if the ball at the front of its line can step,
+     * so it is enough to look at the neighbouring square of each ball.
+     * @param moveDirection the direction to which the balls are moved
+     */
+    public boolean canMove(MoveDirection moveDirection) {
+        int step = step(moveDirection);
+        for (int cell : balls) {
+            if (level.getSlides().stop(cell, moveDirection) != cell && !occupied.get(cell + step)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves all the balls in the specified direction.
+     * @param moveDirection the direction to which the balls are moved
+     */
+    public void move(MoveDirection moveDirection) {
+        int from = balls[BLUE_BALL];
+        if (slideAll(moveDirection, ballAt != null ? getHistory() : null)) {
+            getHistory().record(from, moveDirection);
+        }
+    }
+
+    private boolean slideAll(MoveDirection moveDirection, MoveHistory displaced) {
+        boolean moved = false;
+        if (moveDirection == MoveDirection.DOWN || moveDirection == MoveDirection.RIGHT) {
+            for (int cell = occupied.length() - 1; cell >= 0; cell = occupied.previousSetBit(cell - 1)) {
+                moved |= slide(cell, moveDirection, displaced);
+            }
+        } else {
+            for (int cell = occupied.nextSetBit(0); cell >= 0; cell = occupied.nextSetBit(cell + 1)) {
+                moved |= slide(cell, moveDirection, displaced);
+            }
+        }
+        return moved;
+    }
+
+    private boolean slide(int cell, MoveDirection moveDirection, MoveHistory displaced) {
+        int to = level.getSlides().stop(cell, moveDirection);
+        if (to == cell) {
+            return false;
+        }
+        int blocker;
+        switch (moveDirection) {
+            case RIGHT -> {
+                blocker = occupied.nextSetBit(cell + 1);
+                if (blocker >= 0 && blocker <= to) {
+                    to = blocker - 1;
+                }
+            }
+            case LEFT -> {
+                blocker = occupied.previousSetBit(cell - 1);
+                if (blocker >= to) {
+                    to = blocker + 1;
+                }
+            }
+            case DOWN -> {
+                blocker = occupiedByColumn.nextSetBit(transpose(cell) + 1);
+                if (blocker >= 0 && blocker <= transpose(to)) {
+                    to = transpose(blocker - 1);
+                }
+            }
+            case UP -> {
+                blocker = occupiedByColumn.previousSetBit(transpose(cell) - 1);
+                if (blocker >= transpose(to)) {
+                    to = transpose(blocker + 1);
+                }
+            }
+        }
+        if (to == cell) {
+            return false;
+        }
+        int ball = ballAt != null ? ballAt[cell] : BLUE_BALL;
+        if (displaced != null) {
+            displaced.displace(ball, cell);
+        }
+        place(ball, cell, to);
+        return true;
+    }
+
+    private void place(int ball, int from, int to) {
+        occupied.clear(from);
+        occupiedByColumn.clear(transpose(from));
+        occupied.set(to);
+        occupiedByColumn.set(transpose(to));
+        if (ballAt != null) {
+            ballAt[from] = -1;
+            ballAt[to] = ball;
+        }
+        balls[ball] = to;
+    }
+
+    private int transpose(int cell) {
+        int boardSize = level.getBoardSize();
+        return cell % boardSize * boardSize + cell / boardSize;
+    }
+
+    private int step(MoveDirection moveDirection) {
+        return moveDirection.getRowChange() * level.getBoardSize() + moveDirection.getColChange();
+    }
+
+    /**
+     * {@return the history of the moves made} It is created on first use.
+     */
+    public MoveHistory getHistory() {
+        if (history == null) {
+            history = new MoveHistory();
+        }
+        return history;
+    }
+
+    /**
+     * Undoes the last move. The previous cell of the blue ball, and of every other ball
+     * displaced by the move, is taken from the history.
+     * @return whether there was a move to undo
+     */
+    public boolean undo() {
+        if (history == null || !history.canUndo()) {
+            return false;
+        }
+        int from = history.undo();
+        if (balls.length == 1) {
+            place(BLUE_BALL, balls[BLUE_BALL], from);
+        } else {
+            int start = history.displacedStart(history.getPosition());
+            int end = history.displacedEnd(history.getPosition());
+            // lifts every displaced ball first, as one of them may return to a square another has left
+            for (int i = start; i < end; i += 2) {
+                int cell = balls[history.getDisplacedBall(i)];
+                occupied.clear(cell);
+                occupiedByColumn.clear(transpose(cell));
+                ballAt[cell] = -1;
+            }
+            for (int i = start; i < end; i += 2) {
+                int ball = history.getDisplacedBall(i);
+                int cell = history.getDisplacedCell(i);
+                occupied.set(cell);
+                occupiedByColumn.set(transpose(cell));
+                ballAt[cell] = ball;
+                balls[ball] = cell;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Redoes the last undone move.
+     * @return whether there was a move to redo
+     */
+    public boolean redo() {
+        if (history == null || !history.canRedo()) {
+            return false;
+        }
+        slideAll(history.redo(), null);
+        return true;
+    }
+
+    /**
+     * {@return the cell index where the blue ball stops when moved from a cell in the specified direction}
+     * Only the walls are taken into account, the other balls are ignored.
+     * @param cell the cell index the blue ball is moved from
+     * @param moveDirection the direction to which the blue ball is moved
+     */
+    public int moveFrom(int cell, MoveDirection moveDirection) {
+        return level.getSlides().stop(cell, moveDirection);
+    }
+
+    /**
+     * {@return the position of the wall in the specified direction}
+     * @param moveDirection the direction to which the blue ball is moved
+     */
+    public Position wallPositionInDirection(MoveDirection moveDirection) {
+        return level.positionOf(level.getSlides().stop(balls[BLUE_BALL], moveDirection));
+    }
+
+    /**
+     * {@return the position of the given index}
+     * @param n the index of the position
+     */
+    public Position getPosition(int n) {
+        return switch (n) {
+            case BLUE_BALL -> level.positionOf(balls[BLUE_BALL]);
+            case GOAL_POSITION -> level.positionOf(goal);
+            default -> throw new IndexOutOfBoundsException(n);
+        };
+    }
+
+    @Override
+    public String toString() {
+        var sj = new StringJoiner("; ", "[", "]");
+        level.getWalls().toWalls().forEach(wall -> sj.add(wall.toString()));
+        sj.add(String.format("\nBlue Ball: %s, Goal: %s",
+                getPosition(BLUE_BALL).toString(), getPosition(GOAL_POSITION).toString()));
+        for (int i = 1; i < balls.length; i++) {
+            sj.add(String.format("Ball %d: %s", i, getBallPosition(i)));
+        }
+        return sj.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package labyrinth.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Stores the minimum number of moves from every square of a level to the goal.
+ * It is computed by a single breadth-first search from the goal along reverse
+ * slides, so the best next move of any square is found in constant time. The
+ * squares from which the goal can not be reached are the dead ends of the level.
+ */
+public final class GoalDistanceMap {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+
+    private final SlideTable slides;
+    private final int[] distance;
+
+    private GoalDistanceMap(SlideTable slides, int[] distance) {
+        this.slides = slides;
+        this.distance = distance;
+    }
+
+    /**
+     * Computes the distance of every square of a level from the goal.
+     *
+     * @param slides the slide table of the level
+     * @param goal the cell index of the goal
+     * @return the {@code GoalDistanceMap} object
+     */
+    public static GoalDistanceMap of(SlideTable slides, int goal) {
+        int cells = slides.getBoardSize() * slides.getBoardSize();
+        int[] distance = new int[cells];
+        int[] queue = new int[cells];
+        Arrays.fill(distance, -1);
+
+        distance[goal] = 0;
+        int tail = 0;
+        queue[tail++] = goal;
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            for (var direction : DIRECTIONS) {
+                for (int prev = slides.previous(cell, cell, direction); prev != -1;
+                     prev = slides.previous(prev, cell, direction)) {
+                    if (distance[prev] == -1) {
+                        distance[prev] = distance[cell] + 1;
+                        queue[tail++] = prev;
+                    }
+                }
+            }
+        }
+        return new GoalDistanceMap(slides, distance);
+    }
+
+    /**
+     * {@return the minimum number of moves from a square to the goal, or {@code -1} if the goal can not be reached}
+     * @param cell the cell index of the square
+     */
+    public int distance(int cell) {
+        return distance[cell];
+    }
+
+    /**
+     * {@return whether the goal can not be reached from a square}
+     * @param cell the cell index of the square
+     */
+    public boolean isDeadEnd(int cell) {
+        return distance[cell] == -1;
+    }
+
+    /**
+     * {@return the number of squares from which the goal can not be reached}
+     */
+    public int getDeadEndCount() {
+        return (int) Arrays.stream(distance).filter(d -> d == -1).count();
+    }
+
+    /**
+     * {@return the first move of an optimal solution from a square}
+     * The result is empty if the square is the goal or the goal can not be reached from it.
+     * @param cell the cell index of the square
+     */
+    public Optional<MoveDirection> hint(int cell) {
+        int d = distance[cell];
+        if (d <= 0) {
+            return Optional.empty();
+        }
+        for (var direction : DIRECTIONS) {
+            if (distance[slides.stop(cell, direction)] == d - 1) {
+                return Optional.of(direction);
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
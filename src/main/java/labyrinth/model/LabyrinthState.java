@@ -6,30 +6,30 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import lombok.Getter;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.StringJoiner;
+import java.util.EnumSet;
+import java.util.Optional;
 
 /**
- * Represents the state of the labyrinth.
+ * Represents the state of the labyrinth. It is an observable adapter of a
+ * {@link GameState}, exposing the positions of the balls and the goal as
+ * JavaFX properties.
  */
 public class LabyrinthState {
     @Getter
     private String path;
     @Getter
-    private final int boardSize;
-    @Getter
-    private final Set<Wall> walls;
+    private final GameState gameState;
 
     /**
      * The index of the blue ball.
      */
-    public static final int BLUE_BALL = 0;
+    public static final int BLUE_BALL = GameState.BLUE_BALL;
     /**
      * The index of the goal position.
      */
-    public static final int GOAL_POSITION = 1;
+    public static final int GOAL_POSITION = GameState.GOAL_POSITION;
     private ReadOnlyObjectWrapper<Position>[] positions = new ReadOnlyObjectWrapper[2];
+    private ReadOnlyObjectWrapper<Position>[] balls;
     private ReadOnlyBooleanWrapper goal = new ReadOnlyBooleanWrapper();
 
     /**
@@ -40,43 +40,70 @@ public class LabyrinthState {
     }
 
     /**
-     * Creates a {@code LabyrinthState} object that corresponds to a configuration.
+     * Creates a {@code LabyrinthState} object that corresponds to a configuration. The level is
+     * taken from the shared {@link LevelRegistry}, so the file is parsed only the first time.
      * @param path the path of the configuration file
      */
     public LabyrinthState(String path) {
+        this(LevelRegistry.getInstance().getResource(path));
         this.path = path;
-        LabyrinthState state = LabyrinthStateLoader.loadFromJson(path);
+    }
 
-        this.boardSize = state.boardSize;
-        this.walls = state.walls;
-        this.positions = state.positions;
+    /**
+     * Creates a {@code LabyrinthState} object that corresponds to the initial state of a level.
+     * @param level the level
+     */
+    public LabyrinthState(Level level) {
+        this(new GameState(level));
+    }
 
-        checkConfig();
-        goal.bind(positions[BLUE_BALL].isEqualTo(positions[GOAL_POSITION]));
+    /**
+     * Creates a {@code LabyrinthState} object that observes a game state.
+     * @param gameState the game state
+     */
+    public LabyrinthState(GameState gameState) {
+        this.gameState = gameState;
+        balls = newWrappers(gameState.getBallCount());
+        for (int i = 0; i < balls.length; i++) {
+            balls[i] = new ReadOnlyObjectWrapper<>(gameState.getBallPosition(i));
+        }
+        positions[BLUE_BALL] = balls[GameState.BLUE_BALL];
+        positions[GOAL_POSITION] = new ReadOnlyObjectWrapper<>(gameState.getPosition(GOAL_POSITION));
+        goal.set(gameState.isGoal());
+    }
+
+    // a generic array can not be created directly, but the array never holds anything else
+    @SuppressWarnings("unchecked")
+    private static ReadOnlyObjectWrapper<Position>[] newWrappers(int length) {
+        return (ReadOnlyObjectWrapper<Position>[]) new ReadOnlyObjectWrapper<?>[length];
     }
 
     /**
-     * Creates a {@code LabyrinthState} object that corresponds to a configuration.
-     * @param boardSize the size of the board
-     * @param walls the walls of the board
-     * @param positions the positions of the blue ball and the goal
+     * {@return the level of the game}
      */
-    public LabyrinthState(int boardSize, Set<Wall> walls, ReadOnlyObjectWrapper<Position>[] positions) {
-        this.boardSize = boardSize;
-        this.walls = walls;
-        this.positions = positions;
+    public Level getLevel() {
+        return gameState.getLevel();
     }
 
-    private void checkConfig() {
-        for(Wall wall : walls) {
-            if (!isOnBoard(wall.getPosition())) {
-                throw new IllegalArgumentException();
-            }
-        }
-        if (!isOnBoard(getPosition(BLUE_BALL))
-                || !isOnBoard(getPosition(GOAL_POSITION))) {
-            throw new IllegalArgumentException();
-        }
+    /**
+     * {@return the size of the board}
+     */
+    public int getBoardSize() {
+        return getLevel().getBoardSize();
+    }
+
+    /**
+     * {@return the walls of the board}
+     */
+    public WallGrid getWalls() {
+        return getLevel().getWalls();
+    }
+
+    /**
+     * {@return the slide table of the board}
+     */
+    public SlideTable getSlides() {
+        return getLevel().getSlides();
     }
 
     /**
@@ -86,6 +113,23 @@ public class LabyrinthState {
         return goal.get();
     }
 
+    /**
+     * {@return whether the goal can not be reached from the specified position}
+     * @param position a position on the board
+     */
+    public boolean isDeadEnd(Position position) {
+        return getLevel().isDeadEnd(position);
+    }
+
+    /**
+     * {@return the first move of an optimal solution from the specified position}
+     * The result is empty if the position is the goal or the goal can not be reached from it.
+     * @param position a position on the board
+     */
+    public Optional<MoveDirection> hint(Position position) {
+        return getLevel().hint(position);
+    }
+
     /**
      * {@return goal ReadOnlyProperty}
      */
@@ -94,27 +138,54 @@ public class LabyrinthState {
     }
 
     /**
-     * Moves the blue ball in the specified direction.
-     * @param moveDirection the direction to which the blue ball is moved
+     * {@return whether any of the balls is able to move in the specified direction}
+     * @param moveDirection the direction to which the balls are moved
+     */
+    public boolean canMove(MoveDirection moveDirection) {
+        return gameState.canMove(moveDirection);
+    }
+
+    /**
+     * Moves all the balls in the specified direction.
+     * @param moveDirection the direction to which the balls are moved
      */
     public void move(MoveDirection moveDirection) {
-        Position toPosition = hitWall(moveDirection);
-        moveBall(toPosition);
+        gameState.move(moveDirection);
+        update();
+    }
+
+    /**
+     * Undoes the last move.
+     * @return whether there was a move to undo
+     */
+    public boolean undo() {
+        boolean undone = gameState.undo();
+        update();
+        return undone;
+    }
+
+    /**
+     * Redoes the last undone move.
+     * @return whether there was a move to redo
+     */
+    public boolean redo() {
+        boolean redone = gameState.redo();
+        update();
+        return redone;
     }
 
-    private Position hitWall(MoveDirection moveDirection) {
-        int toRow = getPosition(BLUE_BALL).row();
-        int toCol = getPosition(BLUE_BALL).col();
+    /**
+     * {@return the history of the moves made}
+     */
+    public MoveHistory getHistory() {
+        return gameState.getHistory();
+    }
 
-        while(canMove(moveDirection, new Position(toRow, toCol))) {
-            switch (moveDirection) {
-                case UP -> toRow--;
-                case RIGHT -> toCol++;
-                case DOWN -> toRow++;
-                case LEFT -> toCol--;
-            }
+    private void update() {
+        for (int i = 0; i < balls.length; i++) {
+            balls[i].set(gameState.getBallPosition(i));
         }
-        return new Position(toRow, toCol);
+        goal.set(gameState.isGoal());
     }
 
     /**
@@ -122,90 +193,76 @@ public class LabyrinthState {
      * @param moveDirection the direction to which the blue ball is moved
      */
     public Position wallPositionInDirection(MoveDirection moveDirection) {
-        return hitWall(moveDirection);
+        return gameState.wallPositionInDirection(moveDirection);
     }
 
     /**
-     * {@return whether the blue ball is able to move in the specified direction from the specified position}
+     * {@return the cell index where the blue ball stops when moved from a cell in the specified direction}
+     * Unlike {@link #move(MoveDirection)} it does not change the state.
+     * @param cell the cell index the blue ball is moved from
      * @param moveDirection the direction to which the blue ball is moved
-     * @param position the position of the blue ball
      */
-    public boolean canMove(MoveDirection moveDirection, Position position) {
-        return switch (moveDirection) {
-            case UP -> canMoveUp(position);
-            case RIGHT -> canMoveRight(position);
-            case DOWN -> canMoveDown(position);
-            case LEFT -> canMoveLeft(position);
-        };
-    }
-
-    private boolean canMoveUp(Position position) {
-        if(position.row() > 0) {
-            if (isWall(new Wall(new Position(position.row(), position.col()), Wall.Direction.TOP))) {
-                return false;
-            }
-            return !isWall(new Wall(position.getUp(), Wall.Direction.BOTTOM));
-        }
-        return false;
+    public int moveFrom(int cell, MoveDirection moveDirection) {
+        return gameState.moveFrom(cell, moveDirection);
     }
 
-    private boolean canMoveRight(Position position) {
-        if(position.col() < boardSize - 1) {
-            if (isWall(new Wall(new Position(position.row(), position.col()), Wall.Direction.RIGHT))) {
-                return false;
-            }
-            return !isWall(new Wall(position.getRight(), Wall.Direction.LEFT));
-        }
-        return false;
+    /**
+     * {@return whether the blue ball is able to move in the specified direction from a cell}
+     * @param moveDirection the direction to which the blue ball is moved
+     * @param cell the cell index of the blue ball
+     */
+    public boolean canMove(MoveDirection moveDirection, int cell) {
+        return gameState.moveFrom(cell, moveDirection) != cell;
     }
 
-    private boolean canMoveDown(Position position) {
-        if(position.row() < boardSize - 1) {
-            if (isWall(new Wall(new Position(position.row(), position.col()), Wall.Direction.BOTTOM))) {
-                return false;
-            }
-            return !isWall(new Wall(position.getDown(), Wall.Direction.TOP));
-        }
-        return false;
+    /**
+     * {@return the cell index of the blue ball}
+     */
+    public int getBallCell() {
+        return gameState.getBallCell();
     }
 
-    private boolean canMoveLeft(Position position) {
-        if(position.col() > 0) {
-            if (isWall(new Wall(new Position(position.row(), position.col()), Wall.Direction.LEFT))) {
-                return false;
-            }
-            return !isWall(new Wall(position.getLeft(), Wall.Direction.RIGHT));
-        }
-        return false;
+    /**
+     * {@return the cell index of a position, that is {@code row * boardSize + col}}
+     * @param position a position on the board
+     */
+    public int cellOf(Position position) {
+        return getLevel().cellOf(position);
     }
 
-    private boolean isWall(Wall testWall) {
-        return walls.contains(testWall);
+    /**
+     * {@return the position of a cell index}
+     * @param cell a cell index
+     */
+    public Position positionOf(int cell) {
+        return getLevel().positionOf(cell);
     }
 
     /**
-     * {@return the set of directions in which there is a wall at the specified position}
+     * {@return whether the blue ball is able to move in the specified direction from the specified position}
+     * @param moveDirection the direction to which the blue ball is moved
      * @param position the position of the blue ball
      */
-    public Set<Wall.Direction> getWallDirectionsAtPosition(Position position) {
-        Set<Wall.Direction> wallDirections = new HashSet<>();
-        for(var wallDirection : Wall.Direction.values())
-        {
-            if(isWall(new Wall(position, wallDirection))) {
-                wallDirections.add(wallDirection);
-            }
-        }
-        return wallDirections;
+    public boolean canMove(MoveDirection moveDirection, Position position) {
+        return gameState.canMove(moveDirection, position);
     }
 
-    private boolean isOnBoard(Position position) {
-        return position.row() >= 0 && position.row() < boardSize
-                && position.col() >= 0 && position.col() < boardSize;
+    /**
+     * {@return the set of directions in which there is a wall at the specified position}
+     * @param position the position of the blue ball
+     */
+    public EnumSet<Wall.Direction> getWallDirectionsAtPosition(Position position) {
+        return WallGrid.toDirections(getWallMaskAtPosition(position.row(), position.col()));
     }
 
-
-    private void moveBall(Position toPosition) {
-        positions[BLUE_BALL].set(toPosition);
+    /**
+     * {@return the walls at the specified position as a bitmask, where bit {@code d.ordinal()}
+     * is set for each {@link Wall.Direction} {@code d} having a wall}
+     * @param row the row of the position
+     * @param col the column of the position
+     */
+    public int getWallMaskAtPosition(int row, int col) {
+        return getWalls().wallMask(row, col);
     }
 
     /**
@@ -224,13 +281,24 @@ public class LabyrinthState {
         return positions[n].getReadOnlyProperty();
     }
 
+    /**
+     * {@return the number of balls}
+     */
+    public int getBallCount() {
+        return balls.length;
+    }
+
+    /**
+     * {@return the ReadOnlyProperty of the position of a ball}
+     * @param ball the index of the ball, {@link #BLUE_BALL} being the blue ball
+     */
+    public ReadOnlyObjectProperty<Position> ballProperty(int ball) {
+        return balls[ball].getReadOnlyProperty();
+    }
+
     @Override
     public String toString() {
-        var sj = new StringJoiner("; ", "[", "]");
-        walls.forEach(wall -> sj.add(wall.toString()));
-        sj.add(String.format("\nBlue Ball: %s, Goal: %s",
-                getPosition(BLUE_BALL).toString(), getPosition(GOAL_POSITION).toString()));
-        return sj.toString();
+        return gameState.toString();
     }
 
     public static void main(String[] args) {
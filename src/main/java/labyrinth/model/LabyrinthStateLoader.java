@@ -1,64 +1,247 @@
 package labyrinth.model;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import javafx.beans.property.ReadOnlyObjectWrapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * Helper class provides methods to load labyrinth configuration
+ * Helper class provides methods to load labyrinth configuration. The JSON
+ * data is read token by token with a parser of a shared, thread-safe
+ * {@link JsonFactory}, and the walls are stored straight into a
+ * {@link WallGrid}, so no tree or per-wall objects are built.
  */
 public class LabyrinthStateLoader {
 
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final Wall.Direction[] DIRECTIONS = Wall.Direction.values();
+
     /**
-     * Loads a {@code LabyrinthState} object from a JSON file.
-     * @param path the path of the JSON file
+     * Loads a {@code LabyrinthState} object from a JSON resource.
+     * @param path the path of the JSON resource
      * @return the {@code LabyrinthState} object
+     * @throws UncheckedIOException if any I/O error occurs
      */
     public static LabyrinthState loadFromJson(String path) {
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            InputStream inputStream = LabyrinthState.class.getResourceAsStream(path);
-            JsonNode jsonNode = mapper.readTree(inputStream);
-
-            int boardSize = mapper.treeToValue(jsonNode.get("boardSize"), Integer.class);
-            Position blueBallPosition = mapper.treeToValue(jsonNode.get("blueBall"), Position.class);
-            Position goalPosition = mapper.treeToValue(jsonNode.get("goalPosition"), Position.class);
-            Wall[] walls = mapper.treeToValue(jsonNode.get("walls"), Wall[].class);
-            Set<Wall> wallSet = processWalls(walls);
+        return new LabyrinthState(loadLevel(path));
+    }
 
-            ReadOnlyObjectWrapper<Position>[] positions = new ReadOnlyObjectWrapper[2];
+    /**
+     * Loads a {@code Level} object from a JSON resource.
+     * @param path the path of the JSON resource
+     * @return the {@code Level} object
+     * @throws UncheckedIOException if any I/O error occurs
+     */
+    public static Level loadLevel(String path) {
+        try (InputStream inputStream = Level.class.getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new FileNotFoundException(path);
+            }
+            return loadLevel(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            positions[LabyrinthState.BLUE_BALL] = new ReadOnlyObjectWrapper<>(blueBallPosition);
-            positions[LabyrinthState.GOAL_POSITION] = new ReadOnlyObjectWrapper<>(goalPosition);
+    /**
+     * Loads a {@code Level} object from a JSON file on the file system.
+     * @param file the path of the JSON file
+     * @return the {@code Level} object
+     * @throws IOException if any I/O error occurs
+     */
+    public static Level loadLevelFromFile(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return loadLevel(inputStream);
+        }
+    }
 
-            return new LabyrinthState(boardSize, wallSet, positions);
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Loads a {@code Level} object from a stream of JSON data. The balls are read from the
+     * {@code balls} array, the first element being the blue ball, or if it is missing, the
+     * blue ball alone is read from {@code blueBall}. Unknown fields are skipped.
+     * @param inputStream the stream of JSON data
+     * @return the {@code Level} object
+     * @throws LevelFormatException if the data is not a well-formed level
+     * @throws IOException if any other I/O error occurs
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public static Level loadLevel(InputStream inputStream) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(inputStream)) {
+            return new LevelReader(parser).read();
+        } catch (StreamReadException e) {
+            throw new LevelFormatException(e.getOriginalMessage(), e);
         }
-        return null;
     }
 
-    private static Set<Wall> processWalls(Wall... walls) {
-        Set<Wall> wallSet = new HashSet<>();
-
-        for(Wall wall: walls) {
-            wallSet.add(wall);
-            switch (wall.getDirection()) {
-                case RIGHT ->
-                        wallSet.add(new Wall(wall.getPosition()
-                                .getPosition(MoveDirection.RIGHT),
-                                Wall.Direction.LEFT));
-                case BOTTOM ->
-                        wallSet.add(new Wall(wall.getPosition()
-                                .getPosition(MoveDirection.DOWN),
-                                Wall.Direction.TOP));
+    private static class LevelReader {
+
+        private final JsonParser parser;
+        private int boardSize = -1;
+        private WallGrid walls;
+        private boolean hasWalls;
+        private int[] pendingWalls = new int[0];
+        private int pendingCount;
+        private int row;
+        private int col;
+        private List<Position> balls;
+        private Position blueBall;
+        private Position goal;
+
+        LevelReader(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        Level read() throws IOException {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "boardSize" -> {
+                        expect(token, JsonToken.VALUE_NUMBER_INT);
+                        boardSize = parser.getIntValue();
+                    }
+                    case "walls" -> readWalls(token);
+                    case "balls" -> {
+                        expect(token, JsonToken.START_ARRAY);
+                        balls = new ArrayList<>();
+                        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                            balls.add(readPosition(token));
+                        }
+                    }
+                    case "blueBall" -> blueBall = readPosition(token);
+                    case "goalPosition" -> goal = readPosition(token);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (boardSize < 0) {
+                throw error("Missing field boardSize");
+            }
+            if (!hasWalls) {
+                throw error("Missing field walls");
+            }
+            if (walls == null) {
+                walls = WallGrid.empty(boardSize);
+                for (int i = 0; i < pendingCount; i += 3) {
+                    walls.add(pendingWalls[i], pendingWalls[i + 1], DIRECTIONS[pendingWalls[i + 2]]);
+                }
+            }
+            if (balls == null) {
+                if (blueBall == null) {
+                    throw error("Missing field blueBall");
+                }
+                balls = List.of(blueBall);
+            }
+            if (goal == null) {
+                throw error("Missing field goalPosition");
+            }
+            return new Level(boardSize, walls, balls, goal);
+        }
+
+        private void readWalls(JsonToken token) throws IOException {
+            expect(token, JsonToken.START_ARRAY);
+            hasWalls = true;
+            if (boardSize >= 0) {
+                walls = WallGrid.empty(boardSize);
+            }
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                expect(token, JsonToken.START_OBJECT);
+                boolean hasPosition = false;
+                Wall.Direction direction = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    token = parser.nextToken();
+                    switch (field) {
+                        case "position" -> {
+                            readCoordinates(token);
+                            hasPosition = true;
+                        }
+                        case "direction" -> {
+                            expect(token, JsonToken.VALUE_STRING);
+                            direction = readDirection(parser.getText());
+                        }
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (!hasPosition || direction == null) {
+                    throw error("Incomplete wall");
+                }
+                if (walls != null) {
+                    walls.add(row, col, direction);
+                } else {
+                    addPendingWall(direction);
+                }
+            }
+        }
+
+        private void addPendingWall(Wall.Direction direction) {
+            if (pendingCount + 3 > pendingWalls.length) {
+                pendingWalls = Arrays.copyOf(pendingWalls, Math.max(48, pendingWalls.length * 2));
+            }
+            pendingWalls[pendingCount++] = row;
+            pendingWalls[pendingCount++] = col;
+            pendingWalls[pendingCount++] = direction.ordinal();
+        }
+
+        private Wall.Direction readDirection(String name) throws LevelFormatException {
+            try {
+                return Wall.Direction.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                throw error("Unknown wall direction " + name);
             }
         }
-        return wallSet;
+
+        private Position readPosition(JsonToken token) throws IOException {
+            readCoordinates(token);
+            return Position.of(row, col);
+        }
+
+        private void readCoordinates(JsonToken token) throws IOException {
+            expect(token, JsonToken.START_OBJECT);
+            boolean hasRow = false;
+            boolean hasCol = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                token = parser.nextToken();
+                switch (field) {
+                    case "row" -> {
+                        expect(token, JsonToken.VALUE_NUMBER_INT);
+                        row = parser.getIntValue();
+                        hasRow = true;
+                    }
+                    case "col" -> {
+                        expect(token, JsonToken.VALUE_NUMBER_INT);
+                        col = parser.getIntValue();
+                        hasCol = true;
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (!hasRow || !hasCol) {
+                throw error("Incomplete position");
+            }
+        }
+
+        private void expect(JsonToken actual, JsonToken expected) throws LevelFormatException {
+            if (actual != expected) {
+                throw error(String.format("Expected %s but found %s", expected, actual));
+            }
+        }
+
+        private LevelFormatException error(String message) {
+            var location = parser.currentLocation();
+            return new LevelFormatException(String.format("%s at line %d, column %d",
+                    message, location.getLineNr(), location.getColumnNr()));
+        }
     }
 }
@@ -0,0 +1,79 @@
+package labyrinth.model;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Helper class provides methods to save labyrinth configuration in the
+ * format read by {@link LabyrinthStateLoader}. Levels with a single ball are
+ * written with a {@code blueBall} field, so older versions can read them.
+ */
+public class LabyrinthStateWriter {
+
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    /**
+     * Writes a {@code Level} object as JSON. The stream is flushed but not closed.
+     * @param level the level to be written
+     * @param outputStream the stream to which JSON data will be written
+     * @throws IOException if any I/O error occurs
+     */
+    public static void writeToJson(Level level, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("walls");
+            for (Wall wall : level.getWalls().toWalls()) {
+                generator.writeStartObject();
+                writePosition(generator, "position", wall.getPosition());
+                generator.writeStringField("direction", wall.getDirection().name());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            if (level.getBalls().size() == 1) {
+                writePosition(generator, "blueBall", level.getBlueBall());
+            } else {
+                generator.writeArrayFieldStart("balls");
+                for (Position ball : level.getBalls()) {
+                    writePosition(generator, ball);
+                }
+                generator.writeEndArray();
+            }
+            writePosition(generator, "goalPosition", level.getGoal());
+            generator.writeNumberField("boardSize", level.getBoardSize());
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writePosition(JsonGenerator generator, String name, Position position) throws IOException {
+        generator.writeFieldName(name);
+        writePosition(generator, position);
+    }
+
+    private static void writePosition(JsonGenerator generator, Position position) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("row", position.row());
+        generator.writeNumberField("col", position.col());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a {@code Level} object to a JSON file on the file system.
+     * @param level the level to be written
+     * @param file the path of the JSON file
+     * @throws IOException if any I/O error occurs
+     */
+    public static void writeToFile(Level level, Path file) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            writeToJson(level, outputStream);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package labyrinth.model;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Represents the immutable configuration of a labyrinth: the board, its walls,
+ * the initial positions of the balls and the goal. The first ball is the blue
+ * ball, which has to be moved to the goal. It contains no JavaFX types, so it
+ * can be used by headless code.
+ */
+@Getter
+public final class Level {
+
+    private final int boardSize;
+    private final WallGrid walls;
+    private final SlideTable slides;
+    private final List<Position> balls;
+    private final Position blueBall;
+    private final Position goal;
+    private final GoalDistanceMap goalDistances;
+
+    /**
+     * Creates a {@code Level} object.
+     *
+     * @param boardSize the size of the board
+     * @param walls the walls of the board
+     * @param blueBall the initial position of the blue ball
+     * @param goal the position of the goal
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public Level(int boardSize, WallGrid walls, Position blueBall, Position goal) {
+        this(boardSize, walls, List.of(blueBall), goal);
+    }
+
+    /**
+     * Creates a {@code Level} object with any number of balls.
+     *
+     * @param boardSize the size of the board
+     * @param walls the walls of the board
+     * @param balls the initial positions of the balls, the first one being the blue ball
+     * @param goal the position of the goal
+     * @throws IllegalArgumentException if the configuration is not valid
+     */
+    public Level(int boardSize, WallGrid walls, List<Position> balls, Position goal) {
+        this.boardSize = boardSize;
+        this.walls = walls;
+        this.balls = List.copyOf(balls);
+        this.blueBall = balls.isEmpty() ? null : balls.get(0);
+        this.goal = goal;
+        checkConfig();
+        this.slides = SlideTable.of(walls);
+        this.goalDistances = GoalDistanceMap.of(slides, cellOf(goal));
+    }
+
+    private void checkConfig() {
+        if (walls.getBoardSize() != boardSize) {
+            throw new IllegalArgumentException();
+        }
+        if (balls.isEmpty() || !isOnBoard(goal)) {
+            throw new IllegalArgumentException();
+        }
+        if (!balls.stream().allMatch(this::isOnBoard) || Set.copyOf(balls).size() != balls.size()) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * {@return whether the specified position is on the board}
+     * @param position a position
+     */
+    public boolean isOnBoard(Position position) {
+        return position.row() >= 0 && position.row() < boardSize
+                && position.col() >= 0 && position.col() < boardSize;
+    }
+
+    /**
+     * {@return the number of balls}
+     */
+    public int getBallCount() {
+        return balls.size();
+    }
+
+    /**
+     * {@return whether the goal can not be reached from the specified position}
+     * The result is always {@code false} if there are several balls, since they
+     * can stop the blue ball on squares where the walls alone would not.
+     * @param position a position on the board
+     */
+    public boolean isDeadEnd(Position position) {
+        return balls.size() == 1 && goalDistances.isDeadEnd(cellOf(position));
+    }
+
+    /**
+     * {@return the first move of an optimal solution from the specified position}
+     * The result is empty if the position is the goal, the goal can not be reached
+     * from it or there are several balls.
+     * @param position a position on the board
+     */
+    public Optional<MoveDirection> hint(Position position) {
+        return balls.size() == 1 ? goalDistances.hint(cellOf(position)) : Optional.empty();
+    }
+
+    /**
+     * {@return the cell index of a position, that is {@code row * boardSize + col}}
+     * @param position a position on the board
+     */
+    public int cellOf(Position position) {
+        return position.row() * boardSize + position.col();
+    }
+
+    /**
+     * {@return the position of a cell index}
+     * @param cell a cell index
+     */
+    public Position positionOf(int cell) {
+        return Position.of(cell / boardSize, cell % boardSize);
+    }
+}
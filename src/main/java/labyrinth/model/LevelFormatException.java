@@ -0,0 +1,28 @@
+package labyrinth.model;
+
+import java.io.IOException;
+
+/**
+ * Signals that a level file is not well-formed or lacks a required field.
+ */
+public class LevelFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a {@code LevelFormatException} object.
+     * @param message the detail message
+     */
+    public LevelFormatException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a {@code LevelFormatException} object.
+     * @param message the detail message
+     * @param cause the cause
+     */
+    public LevelFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,21 @@
+package labyrinth.model;
+
+import lombok.NonNull;
+
+/**
+ * Identifies a level by where it was loaded from and a hash of its content,
+ * so a level can be found again and a changed level file can be told apart
+ * from the one originally loaded.
+ *
+ * @param location the path of a resource, or the URI of a file
+ * @param hash the CRC32C of the content
+ */
+public record LevelId(@NonNull String location, long hash) {
+
+    /**
+     * {@return whether the location is the URI of a file rather than the path of a resource}
+     */
+    public boolean isFile() {
+        return location.startsWith("file:");
+    }
+}
@@ -0,0 +1,256 @@
+package labyrinth.model;
+
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reads levels from a binary level-pack file through a read-only
+ * {@link MappedByteBuffer}, decoding only the level requested.
+ *
+ * <p>The file starts with a header of three big-endian {@code int}s: the
+ * magic number {@code LPAK}, the format version and the number of levels
+ * {@code n}. It is followed by an index of {@code n + 1} {@code long} offsets,
+ * the offset of each level record and the end of the last one. A level record
+ * consists of the {@code int} board size, the {@code int} cell index of the
+ * goal, the {@code int} number of balls and their cell indices, then the
+ * vertical and the horizontal plane of the {@link WallGrid}, each one
+ * bit-packed into {@code ceil(boardSize * (boardSize + 1) / 64)} {@code long}s.
+ * The board size is at most {@value #MAX_BOARD_SIZE}, and the sizes read from a
+ * record are checked before anything is allocated for them.</p>
+ */
+public class LevelPack {
+
+    private static final int MAGIC = 0x4C50414B;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * The largest board size a level pack can hold.
+     */
+    public static final int MAX_BOARD_SIZE = 64;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private LevelPack(Path file, MappedByteBuffer buffer, int size) {
+        this.file = file;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Opens a level-pack file. Only the header is read, the levels are decoded on demand.
+     *
+     * @param file the path of the level-pack file
+     * @return the {@code LevelPack} object
+     * @throws LevelFormatException if the file is not a level pack
+     * @throws IOException if any other I/O error occurs
+     */
+    public static LevelPack open(@NonNull final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new LevelFormatException("Level pack is too large: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (length < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new LevelFormatException("Not a level pack: " + file);
+            }
+            if (buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new LevelFormatException("Unsupported level pack version " + buffer.getInt(Integer.BYTES));
+            }
+            int size = buffer.getInt(2 * Integer.BYTES);
+            if (size < 0 || HEADER_SIZE + (size + 1L) * Long.BYTES > length) {
+                throw new LevelFormatException("Truncated level pack index: " + file);
+            }
+            return new LevelPack(file, buffer, size);
+        }
+    }
+
+    /**
+     * {@return the path of the level-pack file}
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * {@return the number of levels}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the initial state of a level}
+     * @param n the index of the level
+     * @throws IndexOutOfBoundsException if there is no level with the index
+     * @throws LevelFormatException if the record of the level is corrupt
+     */
+    public LabyrinthState get(int n) throws LevelFormatException {
+        return new LabyrinthState(getLevel(n));
+    }
+
+    /**
+     * {@return a level} Only the record of the level is read.
+     * @param n the index of the level
+     * @throws IndexOutOfBoundsException if there is no level with the index
+     * @throws LevelFormatException if the record of the level is corrupt
+     */
+    public Level getLevel(int n) throws LevelFormatException {
+        if (n < 0 || n >= size) {
+            throw new IndexOutOfBoundsException(n);
+        }
+        long start = buffer.getLong(HEADER_SIZE + n * Long.BYTES);
+        long end = buffer.getLong(HEADER_SIZE + (n + 1) * Long.BYTES);
+        if (start < HEADER_SIZE || end < start || end > buffer.limit()) {
+            throw new LevelFormatException("Corrupt index entry of level " + n);
+        }
+        try {
+            return decode(n, buffer.slice((int) start, (int) (end - start)));
+        } catch (RuntimeException e) {
+            throw new LevelFormatException("Corrupt record of level " + n, e);
+        }
+    }
+
+    private static Level decode(int n, ByteBuffer record) throws LevelFormatException {
+        int boardSize = record.getInt();
+        if (boardSize <= 0 || boardSize > MAX_BOARD_SIZE) {
+            throw new LevelFormatException("Board size of level " + n + " out of range: " + boardSize);
+        }
+        int cells = boardSize * boardSize;
+        int goal = checkCell(record.getInt(), cells);
+        int ballCount = record.getInt();
+        int words = words(boardSize);
+        if (ballCount <= 0 || ballCount > (record.remaining() - 2L * words * Long.BYTES) / Integer.BYTES) {
+            throw new LevelFormatException("Ball count of level " + n + " out of range: " + ballCount);
+        }
+        List<Position> balls = new ArrayList<>(ballCount);
+        for (int i = 0; i < ballCount; i++) {
+            int cell = checkCell(record.getInt(), cells);
+            balls.add(Position.of(cell / boardSize, cell % boardSize));
+        }
+        BitSet vertical = BitSet.valueOf(record.slice(record.position(), words * Long.BYTES).asLongBuffer());
+        record.position(record.position() + words * Long.BYTES);
+        BitSet horizontal = BitSet.valueOf(record.slice(record.position(), words * Long.BYTES).asLongBuffer());
+        return new Level(boardSize, WallGrid.ofPlanes(boardSize, vertical, horizontal), balls,
+                Position.of(goal / boardSize, goal % boardSize));
+    }
+
+    private static int checkCell(int cell, int cells) {
+        if (cell < 0 || cell >= cells) {
+            throw new IllegalArgumentException("Cell index out of range: " + cell);
+        }
+        return cell;
+    }
+
+    private static int words(int boardSize) {
+        return (boardSize * (boardSize + 1) + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Writes a level-pack file. The number of levels has to be known in advance, so that the
+     * index can be placed in front of the records; it is filled in when the writer is closed.
+     */
+    public static class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final long[] offsets;
+        private int count;
+
+        /**
+         * Creates a level-pack file, replacing any existing file.
+         *
+         * @param file the path of the level-pack file
+         * @param size the number of levels to be written
+         * @throws IOException if any I/O error occurs
+         */
+        public Writer(@NonNull final Path file, int size) throws IOException {
+            offsets = new long[size + 1];
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE + (size + 1L) * Long.BYTES);
+            offsets[0] = channel.position();
+        }
+
+        /**
+         * Appends a level.
+         *
+         * @param level the level to be written
+         * @throws IOException if any I/O error occurs
+         * @throws IllegalStateException if all the levels have already been written
+         * @throws IllegalArgumentException if the board is larger than {@value #MAX_BOARD_SIZE}
+         */
+        public void add(@NonNull final Level level) throws IOException {
+            if (count == offsets.length - 1) {
+                throw new IllegalStateException("Level pack is full");
+            }
+            int boardSize = level.getBoardSize();
+            if (boardSize > MAX_BOARD_SIZE) {
+                throw new IllegalArgumentException("Board size out of range: " + boardSize);
+            }
+            int words = words(boardSize);
+            ByteBuffer record = ByteBuffer.allocate((3 + level.getBalls().size()) * Integer.BYTES
+                    + 2 * words * Long.BYTES);
+            record.putInt(boardSize);
+            record.putInt(level.cellOf(level.getGoal()));
+            record.putInt(level.getBalls().size());
+            for (Position ball : level.getBalls()) {
+                record.putInt(level.cellOf(ball));
+            }
+            putPlane(record, level.getWalls().verticalPlane(), words);
+            putPlane(record, level.getWalls().horizontalPlane(), words);
+            record.flip();
+            writeFully(record);
+            offsets[++count] = channel.position();
+        }
+
+        private static void putPlane(ByteBuffer record, BitSet plane, int words) {
+            LongBuffer longs = record.slice(record.position(), words * Long.BYTES).asLongBuffer();
+            longs.put(plane.toLongArray());
+            record.position(record.position() + words * Long.BYTES);
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        /**
+         * Writes the header and the index, and closes the file.
+         *
+         * @throws IOException if any I/O error occurs
+         * @throws IllegalStateException if fewer levels were written than announced
+         */
+        @Override
+        public void close() throws IOException {
+            try (channel) {
+                if (count != offsets.length - 1) {
+                    throw new IllegalStateException(String.format("Expected %d levels but %d were written",
+                            offsets.length - 1, count));
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + offsets.length * Long.BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(count);
+                for (long offset : offsets) {
+                    header.putLong(offset);
+                }
+                header.flip();
+                channel.position(0);
+                writeFully(header);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package labyrinth.model;
+
+import org.tinylog.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps parsed levels in a bounded cache, so loading the same level again
+ * does not parse it again. Levels are immutable, so they serve as templates:
+ * a new game only creates a {@link GameState} holding the positions of the
+ * balls. Entries are keyed by the path and store a hash of the content, so a
+ * level file that has changed is parsed again and replaces its previous entry,
+ * and the least recently used entry is evicted when the cache is full.
+ */
+public final class LevelRegistry {
+
+    /**
+     * The number of levels kept by the shared registry.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static LevelRegistry INSTANCE;
+
+    /**
+     * Represents a level together with its identifier.
+     *
+     * @param id the identifier of the level
+     * @param level the level
+     */
+    public record Entry(LevelId id, Level level) {
+    }
+
+    private final Map<String, Entry> levels;
+
+    /**
+     * Creates a {@code LevelRegistry} object.
+     * @param capacity the maximum number of levels kept
+     */
+    public LevelRegistry(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        levels = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the shared instance of the {@code LevelRegistry}
+     */
+    public static synchronized LevelRegistry getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new LevelRegistry(DEFAULT_CAPACITY);
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * {@return the level of a JSON resource, parsed at most once while its content does not change}
+     * @param path the path of the JSON resource
+     * @throws UncheckedIOException if any I/O error occurs
+     */
+    public Level getResource(String path) {
+        return loadResource(path).level();
+    }
+
+    /**
+     * {@return the level of a JSON file, parsed at most once while its content does not change}
+     * @param file the path of the JSON file
+     * @throws IOException if any I/O error occurs
+     */
+    public Level getFile(Path file) throws IOException {
+        return loadFile(file).level();
+    }
+
+    /**
+     * {@return the level of a JSON resource and its identifier}
+     * @param path the path of the JSON resource
+     * @throws UncheckedIOException if any I/O error occurs
+     */
+    public Entry loadResource(String path) {
+        try (InputStream inputStream = Level.class.getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new FileNotFoundException(path);
+            }
+            return get(path, inputStream.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@return the level of a JSON file and its identifier}
+     * @param file the path of the JSON file
+     * @throws IOException if any I/O error occurs
+     */
+    public Entry loadFile(Path file) throws IOException {
+        return get(file.toAbsolutePath().normalize().toUri().toString(), Files.readAllBytes(file));
+    }
+
+    /**
+     * {@return the level identified, or an empty {@code Optional} if it cannot be read or its content
+     * has changed}
+     * @param id the identifier of the level
+     */
+    public Optional<Level> find(LevelId id) {
+        try {
+            var entry = id.isFile() ? loadFile(Path.of(URI.create(id.location()))) : loadResource(id.location());
+            return entry.id().hash() == id.hash() ? Optional.of(entry.level()) : Optional.empty();
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            Logger.warn("Level {} cannot be read: {}", id.location(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Entry get(String location, byte[] content) throws IOException {
+        var crc = new CRC32C();
+        crc.update(content);
+        long hash = crc.getValue();
+        synchronized (levels) {
+            var entry = levels.get(location);
+            if (entry != null && entry.id().hash() == hash) {
+                return entry;
+            }
+        }
+        var entry = new Entry(new LevelId(location, hash), LabyrinthStateLoader.loadLevel(new ByteArrayInputStream(content)));
+        synchronized (levels) {
+            levels.put(location, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * {@return the number of levels kept}
+     */
+    public int size() {
+        synchronized (levels) {
+            return levels.size();
+        }
+    }
+
+    /**
+     * Removes all the levels.
+     */
+    public void clear() {
+        synchronized (levels) {
+            levels.clear();
+        }
+    }
+}
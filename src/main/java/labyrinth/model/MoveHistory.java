@@ -0,0 +1,187 @@
+package labyrinth.model;
+
+import java.util.Arrays;
+
+/**
+ * Records the moves of a game for undo and redo. Each move is stored as two
+ * bits in a growable {@code long[]}, next to the cell index the blue ball was
+ * moved from in a growable {@code int[]}, so recording a move creates no
+ * objects. With several balls, the index and the previous cell of every ball
+ * displaced by a move are stored as pairs in a third growable {@code int[]},
+ * so a move can be undone without replaying the ones before it.
+ */
+public final class MoveHistory {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+    private static final int MOVES_PER_WORD = Long.SIZE / 2;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] moves = new long[INITIAL_CAPACITY / MOVES_PER_WORD];
+    private int[] fromCells = new int[INITIAL_CAPACITY];
+    private int[] displacedEnds = new int[INITIAL_CAPACITY];
+    private int[] displaced = new int[INITIAL_CAPACITY * 2];
+    private int displacedSize;
+    private int size;
+    private int position;
+
+    /**
+     * Records a ball displaced by the move that is being made. The displaced
+     * balls have to be recorded before the move itself.
+     *
+     * @param ball the index of the ball
+     * @param fromCell the cell index the ball was moved from
+     */
+    public void displace(int ball, int fromCell) {
+        if (displacedSize + 2 > displaced.length) {
+            displaced = Arrays.copyOf(displaced, displaced.length * 2);
+        }
+        displaced[displacedSize++] = ball;
+        displaced[displacedSize++] = fromCell;
+    }
+
+    /**
+     * Records a move, discarding the moves that could have been redone.
+     *
+     * @param fromCell the cell index the blue ball was moved from
+     * @param moveDirection the direction of the move
+     */
+    public void record(int fromCell, MoveDirection moveDirection) {
+        if (position == fromCells.length) {
+            fromCells = Arrays.copyOf(fromCells, fromCells.length * 2);
+            moves = Arrays.copyOf(moves, moves.length * 2);
+            displacedEnds = Arrays.copyOf(displacedEnds, displacedEnds.length * 2);
+        }
+        int word = position / MOVES_PER_WORD;
+        int shift = (position % MOVES_PER_WORD) * 2;
+        moves[word] = (moves[word] & ~(3L << shift)) | ((long) moveDirection.ordinal() << shift);
+        fromCells[position] = fromCell;
+        displacedEnds[position] = displacedSize;
+        size = ++position;
+    }
+
+    /**
+     * {@return whether there is a move to undo}
+     */
+    public boolean canUndo() {
+        return position > 0;
+    }
+
+    /**
+     * {@return whether there is an undone move to redo}
+     */
+    public boolean canRedo() {
+        return position < size;
+    }
+
+    /**
+     * Undoes the last move.
+     *
+     * @return the cell index the blue ball was moved from
+     * @throws IllegalStateException if there is no move to undo
+     */
+    public int undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException();
+        }
+        position--;
+        displacedSize = displacedStart(position);
+        return fromCells[position];
+    }
+
+    /**
+     * Redoes the last undone move.
+     *
+     * @return the direction of the move
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public MoveDirection redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException();
+        }
+        displacedSize = displacedEnds[position];
+        return getMove(position++);
+    }
+
+    /**
+     * {@return the direction of a recorded move}
+     * @param i the index of the move
+     */
+    public MoveDirection getMove(int i) {
+        checkIndex(i);
+        return DIRECTIONS[(int) (moves[i / MOVES_PER_WORD] >>> ((i % MOVES_PER_WORD) * 2)) & 3];
+    }
+
+    /**
+     * {@return the cell index the blue ball was moved from in a recorded move}
+     * @param i the index of the move
+     */
+    public int getFromCell(int i) {
+        checkIndex(i);
+        return fromCells[i];
+    }
+
+    /**
+     * {@return the offset of the first ball displaced by a recorded move}
+     * The balls displaced by move {@code i} are the ones from this offset up to
+     * {@link #displacedEnd(int)}.
+     * @param i the index of the move
+     */
+    public int displacedStart(int i) {
+        checkIndex(i);
+        return i == 0 ? 0 : displacedEnds[i - 1];
+    }
+
+    /**
+     * {@return the offset after the last ball displaced by a recorded move}
+     * @param i the index of the move
+     */
+    public int displacedEnd(int i) {
+        checkIndex(i);
+        return displacedEnds[i];
+    }
+
+    /**
+     * {@return the index of a displaced ball}
+     * @param offset the offset of the displaced ball
+     */
+    public int getDisplacedBall(int offset) {
+        return displaced[offset];
+    }
+
+    /**
+     * {@return the cell index a displaced ball was moved from}
+     * @param offset the offset of the displaced ball
+     */
+    public int getDisplacedCell(int offset) {
+        return displaced[offset + 1];
+    }
+
+    /**
+     * {@return the number of moves leading to the current state}
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * {@return the number of recorded moves, including the ones that can be redone}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every recorded move.
+     */
+    public void clear() {
+        size = 0;
+        position = 0;
+        displacedSize = 0;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException(i);
+        }
+    }
+}
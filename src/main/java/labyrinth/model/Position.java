@@ -5,6 +5,34 @@ package labyrinth.model;
  */
 public record Position(int row, int col) {
 
+    /**
+     * The number of rows and columns whose positions are cached by {@link #of(int, int)}.
+     */
+    public static final int CACHE_SIZE = 64;
+
+    private static final Position[] CACHE = new Position[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new Position(i / CACHE_SIZE, i % CACHE_SIZE);
+        }
+    }
+
+    /**
+     * {@return the position with the specified coordinates} Positions whose
+     * coordinates are between {@code 0} and {@code CACHE_SIZE - 1} are
+     * canonical instances, any other position is a new instance.
+     *
+     * @param row the row of the position
+     * @param col the column of the position
+     */
+    public static Position of(int row, int col) {
+        if (row >= 0 && row < CACHE_SIZE && col >= 0 && col < CACHE_SIZE) {
+            return CACHE[row * CACHE_SIZE + col];
+        }
+        return new Position(row, col);
+    }
+
     /**
      * {@return the position whose vertical and horizontal distances from this
      * position are equal to the coordinate changes of the direction given}
@@ -12,7 +40,7 @@ public record Position(int row, int col) {
      * @param moveDirection a direction that specifies a change in the coordinates
      */
     public Position getPosition(MoveDirection moveDirection) {
-        return new Position(row + moveDirection.getRowChange(), col + moveDirection.getColChange());
+        return of(row + moveDirection.getRowChange(), col + moveDirection.getColChange());
     }
 
     /**
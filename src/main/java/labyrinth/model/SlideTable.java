@@ -0,0 +1,95 @@
+package labyrinth.model;
+
+/**
+ * Maps every square of a board and every {@link MoveDirection} to the square
+ * where a ball rolled in that direction stops. Squares are identified by their
+ * cell index {@code row * boardSize + col}.
+ */
+public final class SlideTable {
+
+    private static final int DIRECTIONS = MoveDirection.values().length;
+
+    private final int boardSize;
+    private final int[] stops;
+
+    private SlideTable(int boardSize, int[] stops) {
+        this.boardSize = boardSize;
+        this.stops = stops;
+    }
+
+    /**
+     * Computes the slide destinations of every square of a board.
+     *
+     * @param walls the walls of the board
+     * @return the {@code SlideTable} object
+     */
+    public static SlideTable of(WallGrid walls) {
+        int n = walls.getBoardSize();
+        int[] stops = new int[n * n * DIRECTIONS];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                stops[index(n, row, col, MoveDirection.UP)] = walls.canStep(row, col, MoveDirection.UP)
+                        ? stops[index(n, row - 1, col, MoveDirection.UP)]
+                        : row * n + col;
+                stops[index(n, row, col, MoveDirection.LEFT)] = walls.canStep(row, col, MoveDirection.LEFT)
+                        ? stops[index(n, row, col - 1, MoveDirection.LEFT)]
+                        : row * n + col;
+            }
+        }
+        for (int row = n - 1; row >= 0; row--) {
+            for (int col = n - 1; col >= 0; col--) {
+                stops[index(n, row, col, MoveDirection.DOWN)] = walls.canStep(row, col, MoveDirection.DOWN)
+                        ? stops[index(n, row + 1, col, MoveDirection.DOWN)]
+                        : row * n + col;
+                stops[index(n, row, col, MoveDirection.RIGHT)] = walls.canStep(row, col, MoveDirection.RIGHT)
+                        ? stops[index(n, row, col + 1, MoveDirection.RIGHT)]
+                        : row * n + col;
+            }
+        }
+        return new SlideTable(n, stops);
+    }
+
+    private static int index(int boardSize, int row, int col, MoveDirection moveDirection) {
+        return (row * boardSize + col) * DIRECTIONS + moveDirection.ordinal();
+    }
+
+    /**
+     * {@return the size of the board}
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * {@return the cell index of the square where a ball stops}
+     * @param cell the cell index of the square the ball starts from
+     * @param moveDirection the direction in which the ball is rolled
+     */
+    public int stop(int cell, MoveDirection moveDirection) {
+        return stops[cell * DIRECTIONS + moveDirection.ordinal()];
+    }
+
+    /**
+     * {@return the cell index of the square where a ball stops}
+     * @param row the row of the square the ball starts from
+     * @param col the column of the square the ball starts from
+     * @param moveDirection the direction in which the ball is rolled
+     */
+    public int stop(int row, int col, MoveDirection moveDirection) {
+        return stops[index(boardSize, row, col, moveDirection)];
+    }
+
+    /**
+     * {@return the square one step before a square against a direction if a ball rolled from there
+     * in that direction stops at the specified square, otherwise {@code -1}}
+     * Starting from the stop itself and calling the method with each result in turn visits every
+     * square from which a ball rolled in the direction stops there.
+     * @param cell the cell index of the square
+     * @param stop the cell index of the square where the ball has to stop
+     * @param moveDirection the direction in which the ball is rolled
+     */
+    public int previous(int cell, int stop, MoveDirection moveDirection) {
+        int prev = cell - (moveDirection.getRowChange() * boardSize + moveDirection.getColChange());
+        return prev >= 0 && prev < boardSize * boardSize && stop(prev, moveDirection) == stop ? prev : -1;
+    }
+}
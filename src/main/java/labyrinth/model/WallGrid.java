@@ -0,0 +1,204 @@
+package labyrinth.model;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Stores the walls of a square board as two planes of edge bits. Every edge
+ * between two squares (and every edge on the border of the board) is stored
+ * exactly once, so the {@code RIGHT} wall of a square and the {@code LEFT} wall
+ * of its right neighbour are the same bit.
+ *
+ * <p>The vertical plane has {@code boardSize} rows of {@code boardSize + 1}
+ * edges, the edge {@code row * (boardSize + 1) + col} being the left edge of
+ * the square {@code (row, col)}. The horizontal plane has {@code boardSize + 1}
+ * rows of {@code boardSize} edges, the edge {@code row * boardSize + col} being
+ * the top edge of the square {@code (row, col)}.</p>
+ */
+public final class WallGrid {
+
+    private static final Wall.Direction[] DIRECTIONS = Wall.Direction.values();
+
+    private final int boardSize;
+    private final BitSet vertical;
+    private final BitSet horizontal;
+
+    private WallGrid(int boardSize) {
+        this.boardSize = boardSize;
+        this.vertical = new BitSet(boardSize * (boardSize + 1));
+        this.horizontal = new BitSet((boardSize + 1) * boardSize);
+    }
+
+    /**
+     * Creates a {@code WallGrid} object from a collection of walls.
+     *
+     * @param boardSize the size of the board
+     * @param walls the walls of the board
+     * @return the {@code WallGrid} object
+     * @throws IllegalArgumentException if any of the walls is not on the board
+     */
+    public static WallGrid of(int boardSize, Collection<Wall> walls) {
+        WallGrid grid = empty(boardSize);
+        for (Wall wall : walls) {
+            grid.add(wall.getPosition().row(), wall.getPosition().col(), wall.getDirection());
+        }
+        return grid;
+    }
+
+    static WallGrid empty(int boardSize) {
+        if (boardSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        return new WallGrid(boardSize);
+    }
+
+    /**
+     * {@return the number of bits of each of the two planes}
+     */
+    int planeSize() {
+        return boardSize * (boardSize + 1);
+    }
+
+    BitSet verticalPlane() {
+        return vertical;
+    }
+
+    BitSet horizontalPlane() {
+        return horizontal;
+    }
+
+    static WallGrid ofPlanes(int boardSize, BitSet vertical, BitSet horizontal) {
+        WallGrid grid = empty(boardSize);
+        if (vertical.length() > grid.planeSize() || horizontal.length() > grid.planeSize()) {
+            throw new IllegalArgumentException();
+        }
+        grid.vertical.or(vertical);
+        grid.horizontal.or(horizontal);
+        return grid;
+    }
+
+    void add(int row, int col, Wall.Direction direction) {
+        if (!isOnBoard(row, col)) {
+            throw new IllegalArgumentException();
+        }
+        switch (direction) {
+            case RIGHT -> vertical.set(verticalEdge(row, col + 1));
+            case BOTTOM -> horizontal.set(horizontalEdge(row + 1, col));
+            case LEFT -> vertical.set(verticalEdge(row, col));
+            case TOP -> horizontal.set(horizontalEdge(row, col));
+        }
+    }
+
+    /**
+     * {@return the size of the board}
+     */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * {@return whether there is a wall on the specified side of a square}
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param direction the side of the square
+     */
+    public boolean hasWall(int row, int col, Wall.Direction direction) {
+        return switch (direction) {
+            case RIGHT -> vertical.get(verticalEdge(row, col + 1));
+            case BOTTOM -> horizontal.get(horizontalEdge(row + 1, col));
+            case LEFT -> vertical.get(verticalEdge(row, col));
+            case TOP -> horizontal.get(horizontalEdge(row, col));
+        };
+    }
+
+    /**
+     * {@return whether a ball on the specified square can step one square in the specified direction}
+     * @param row the row of the square
+     * @param col the column of the square
+     * @param moveDirection the direction of the step
+     */
+    public boolean canStep(int row, int col, MoveDirection moveDirection) {
+        return switch (moveDirection) {
+            case UP -> row > 0 && !horizontal.get(horizontalEdge(row, col));
+            case RIGHT -> col < boardSize - 1 && !vertical.get(verticalEdge(row, col + 1));
+            case DOWN -> row < boardSize - 1 && !horizontal.get(horizontalEdge(row + 1, col));
+            case LEFT -> col > 0 && !vertical.get(verticalEdge(row, col));
+        };
+    }
+
+    /**
+     * {@return the walls of a square as a bitmask, where bit {@code d.ordinal()} is set for each
+     * {@link Wall.Direction} {@code d} having a wall}
+     * @param row the row of the square
+     * @param col the column of the square
+     */
+    public int wallMask(int row, int col) {
+        int mask = 0;
+        if (vertical.get(verticalEdge(row, col + 1))) {
+            mask |= 1 << Wall.Direction.RIGHT.ordinal();
+        }
+        if (horizontal.get(horizontalEdge(row + 1, col))) {
+            mask |= 1 << Wall.Direction.BOTTOM.ordinal();
+        }
+        if (vertical.get(verticalEdge(row, col))) {
+            mask |= 1 << Wall.Direction.LEFT.ordinal();
+        }
+        if (horizontal.get(horizontalEdge(row, col))) {
+            mask |= 1 << Wall.Direction.TOP.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * {@return the set of directions that the specified bitmask represents}
+     * @param mask a bitmask as returned by {@link #wallMask(int, int)}
+     */
+    public static EnumSet<Wall.Direction> toDirections(int mask) {
+        EnumSet<Wall.Direction> directions = EnumSet.noneOf(Wall.Direction.class);
+        for (var direction : DIRECTIONS) {
+            if ((mask & (1 << direction.ordinal())) != 0) {
+                directions.add(direction);
+            }
+        }
+        return directions;
+    }
+
+    /**
+     * {@return the walls of the board, each edge represented by a single wall}
+     */
+    public Set<Wall> toWalls() {
+        Set<Wall> walls = new LinkedHashSet<>();
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                if (vertical.get(verticalEdge(row, col + 1))) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.RIGHT));
+                }
+                if (horizontal.get(horizontalEdge(row + 1, col))) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.BOTTOM));
+                }
+                if (col == 0 && vertical.get(verticalEdge(row, 0))) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.LEFT));
+                }
+                if (row == 0 && horizontal.get(horizontalEdge(0, col))) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.TOP));
+                }
+            }
+        }
+        return walls;
+    }
+
+    private boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < boardSize && col >= 0 && col < boardSize;
+    }
+
+    private int verticalEdge(int row, int col) {
+        return row * (boardSize + 1) + col;
+    }
+
+    private int horizontalEdge(int row, int col) {
+        return row * boardSize + col;
+    }
+}
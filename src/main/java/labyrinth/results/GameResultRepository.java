@@ -2,63 +2,303 @@ package labyrinth.results;
 
 import labyrinth.util.repository.FileSystemRepository;
 import lombok.NonNull;
+import org.tinylog.Logger;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Repository class for the {@link GameResult} entity.
+ * Repository class for the {@link GameResult} entity. Ids are taken from a
+ * sequence restored when the repository is loaded, so adding a result does not
+ * scan the others. The results are indexed by duration, player, creation time
+ * and number of steps, so the cost of a query depends on the number of results
+ * returned rather than on the size of the repository. The indexes hold copies
+ * of the results taken when they are added, and the queries return copies of
+ * those, so modifying a result can not break the order of an index.
  */
 public class GameResultRepository extends FileSystemRepository<GameResult> {
 
+    /**
+     * The suffix added to the name of the snapshot file to obtain the name of the file holding
+     * the last id of the sequence.
+     */
+    public static final String SEQUENCE_SUFFIX = ".sequence";
+
     private static GameResultRepository INSTANCE;
 
-    private GameResultRepository() {
+    private static final Comparator<GameResult> BY_CREATED = Comparator
+            .comparing((GameResult result) -> result.getCreated().toInstant())
+            .thenComparing(GameResult::getId);
+
+    private static final Comparator<GameResult> BY_STEPS = Comparator.comparingInt(GameResult::getSteps)
+            .thenComparing(GameResult::getId);
+
+    /**
+     * The results of a player, all of them and the solved ones ranked.
+     */
+    private record PlayerIndex(Set<GameResult> results, Leaderboard leaderboard) {
+    }
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object openingLock = new Object();
+    private CompletableFuture<Set<GameResult>> opening;
+    private final Map<Long, GameResult> indexed = new HashMap<>();
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final Map<String, PlayerIndex> byPlayer = new HashMap<>();
+    private final NavigableSet<GameResult> byCreated = new TreeSet<>(BY_CREATED);
+    private final NavigableSet<GameResult> bySteps = new TreeSet<>(BY_STEPS);
+
+    GameResultRepository() {
         super(GameResult.class);
     }
 
     /**
      * @return the singleton instance of the {@code GameResultRepository}
      */
-    public static GameResultRepository getInstance() {
+    public static synchronized GameResultRepository getInstance() {
         if (INSTANCE == null) {
             INSTANCE = new GameResultRepository();
         }
         return INSTANCE;
     }
 
+    /**
+     * Opens the repository on a file on a background thread. Only the first call starts opening the
+     * repository, later calls return the same future, so callers can chain their work onto it
+     * instead of opening the repository on their own thread.
+     *
+     * @param file the snapshot file, which need not exist
+     * @return the future completed with a snapshot of the repository once it is opened
+     */
+    public CompletableFuture<Set<GameResult>> openInBackground(
+            @NonNull final File file) {
+
+        synchronized (openingLock) {
+            if (opening == null) {
+                var future = new CompletableFuture<Set<GameResult>>();
+                var loader = new Thread(() -> {
+                    try {
+                        future.complete(open(file));
+                    } catch (IOException | RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                }, "results-loader");
+                loader.setDaemon(true);
+                loader.start();
+                opening = future;
+            }
+            return opening;
+        }
+    }
+
+    /**
+     * Assigns the next id of the sequence and the current time to the result if it has none, then adds it.
+     * The id is taken with the repository locked, so it can not be taken before the sequence is restored.
+     *
+     * @param element the result to be added
+     * @return whether the result has been added
+     */
     @Override
-    public Set<GameResult> addOne(
+    public synchronized boolean addOne(
             @NonNull final GameResult element) {
 
         if (element.getId() == null) {
-            element.setId(getAll().stream()
-                    .mapToLong(GameResult::getId)
-                    .max()
-                    .orElse(0L) + 1L);
+            element.setId(sequence.incrementAndGet());
+        }
+        if (element.getCreated() == null) {
+            element.setCreated(ZonedDateTime.now());
         }
-        element.setCreated(ZonedDateTime.now());
         return super.addOne(element);
     }
 
+    /**
+     * Saves the last id of the sequence before the results holding it may be removed, so ids are
+     * never reused.
+     *
+     * @param elements the elements to be added
+     */
+    @Override
+    public void replaceAll(
+            @NonNull final Collection<GameResult> elements) {
+
+        var file = getFile();
+        if (file != null) {
+            try {
+                writeAtomically(sequenceOf(file), Long.toString(sequence.get()).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        super.replaceAll(elements);
+    }
+
+    /**
+     * Sets the sequence to the largest id used, either saved or held by a result. A sequence file
+     * that can not be parsed is ignored.
+     */
+    @Override
+    protected void loaded(File file) throws IOException {
+        long last = indexed.keySet().stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L);
+        Path path = sequenceOf(file);
+        if (Files.exists(path)) {
+            try {
+                last = Math.max(last, Long.parseLong(Files.readString(path).trim()));
+            } catch (NumberFormatException e) {
+                Logger.warn("Ignoring the invalid sequence file {}", path);
+            }
+        }
+        sequence.set(last);
+    }
+
+    private static Path sequenceOf(File file) {
+        return Path.of(file.getPath() + SEQUENCE_SUFFIX);
+    }
+
+    @Override
+    protected void elementAdded(GameResult added) {
+        var element = added.toBuilder().build();
+        indexed.put(element.getId(), element);
+        var player = byPlayer.computeIfAbsent(element.getPlayer(),
+                key -> new PlayerIndex(new LinkedHashSet<>(), new Leaderboard()));
+        player.results().add(element);
+        if (element.isSolved()) {
+            leaderboard.add(element);
+            player.leaderboard().add(element);
+        }
+        if (element.getCreated() != null) {
+            byCreated.add(element);
+        }
+        bySteps.add(element);
+    }
+
+    @Override
+    protected void elementRemoved(GameResult removed) {
+        var element = indexed.remove(removed.getId());
+        var player = byPlayer.get(element.getPlayer());
+        player.results().remove(element);
+        if (player.results().isEmpty()) {
+            byPlayer.remove(element.getPlayer());
+        }
+        if (element.isSolved()) {
+            leaderboard.remove(element);
+            player.leaderboard().remove(element);
+        }
+        if (element.getCreated() != null) {
+            byCreated.remove(element);
+        }
+        bySteps.remove(element);
+    }
+
+    @Override
+    protected void elementsCleared() {
+        indexed.clear();
+        leaderboard.clear();
+        byPlayer.clear();
+        byCreated.clear();
+        bySteps.clear();
+    }
+
     /**
      * Returns the list of {@code n} best results with respect to the time
-     * spent for solving the puzzle.
+     * spent for solving the puzzle. The results are read from an index
+     * maintained on every change, so the cost depends on {@code n} only.
      *
      * @param n the maximum number of results to be returned
      * @return the list of {@code n} best results with respect to the time
      * spent for solving the puzzle
      */
-    public List<GameResult> findBest(
+    public synchronized List<GameResult> findBest(
+            final int n) {
+
+        return copies(leaderboard.top(n));
+    }
+
+    /**
+     * {@return the 1-based place of a solved result among the stored solved results}
+     * @param result a solved result, stored or not
+     */
+    public synchronized int rank(
+            @NonNull final GameResult result) {
+
+        return leaderboard.rank(result);
+    }
+
+    /**
+     * {@return the results of a player in the order they were added}
+     * @param player the name of the player
+     */
+    public synchronized List<GameResult> findByPlayer(
+            final String player) {
+
+        var index = byPlayer.get(player);
+        return index == null ? List.of() : copies(index.results());
+    }
+
+    /**
+     * {@return the {@code n} best results of a player with respect to the time spent for solving the puzzle}
+     * @param player the name of the player
+     * @param n the maximum number of results to be returned
+     */
+    public synchronized List<GameResult> findBestOfPlayer(
+            final String player,
             final int n) {
 
-        return getAll().stream()
-                .filter(GameResult::isSolved)
-                .sorted(Comparator.comparing(GameResult::getDuration)
-                        .thenComparing(GameResult::getCreated, Comparator.reverseOrder()))
-                .limit(n)
-                .toList();
+        var index = byPlayer.get(player);
+        return index == null ? List.of() : copies(index.leaderboard().top(n));
+    }
+
+    /**
+     * {@return the results created in a time range, in the order of their creation}
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     */
+    public synchronized List<GameResult> findCreatedBetween(
+            @NonNull final Instant from,
+            @NonNull final Instant to) {
+
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        var lower = GameResult.builder().id(Long.MIN_VALUE).created(from.atZone(ZoneOffset.UTC)).build();
+        var upper = GameResult.builder().id(Long.MIN_VALUE).created(to.atZone(ZoneOffset.UTC)).build();
+        return copies(byCreated.subSet(lower, true, upper, false));
+    }
+
+    /**
+     * {@return the results having at most the specified number of steps, in increasing order of steps}
+     * @param steps the maximum number of steps
+     */
+    public synchronized List<GameResult> findWithStepsAtMost(
+            final int steps) {
+
+        var upper = GameResult.builder().id(Long.MAX_VALUE).steps(steps).build();
+        return copies(bySteps.headSet(upper, true));
+    }
+
+    private static List<GameResult> copies(Collection<GameResult> results) {
+        return results.stream().map(result -> result.toBuilder().build()).toList();
     }
 }
@@ -0,0 +1,172 @@
+package labyrinth.results;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Keeps the solved results ordered by duration, the most recent first among
+ * equal durations. The results are stored in an indexable skip list: every
+ * link also stores the number of results it skips, so the rank of a result is
+ * found in {@code O(log n)} expected time, and the best {@code n} results are
+ * read in {@code O(n)} by following the bottom level. Results must not be
+ * modified while they are stored.
+ */
+public class Leaderboard {
+
+    /**
+     * The order of the results, ties broken by id so that every result has a distinct place.
+     */
+    public static final Comparator<GameResult> ORDER = Comparator.comparing(GameResult::getDuration)
+            .thenComparing(GameResult::getCreated, Comparator.reverseOrder())
+            .thenComparing(GameResult::getId);
+
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node {
+        final GameResult result;
+        final Node[] next;
+        final int[] span;
+
+        Node(GameResult result, int level) {
+            this.result = result;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Random random = new Random();
+    private final Node head = new Node(null, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    /**
+     * {@return the number of results}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a result.
+     *
+     * @param result the result to be added
+     */
+    public void add(GameResult result) {
+        var update = new Node[MAX_LEVEL];
+        var rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && ORDER.compare(x.next[i].result, result) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+        var node = new Node(result, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Removes a result.
+     *
+     * @param result the result to be removed
+     * @return whether the result was stored
+     */
+    public boolean remove(GameResult result) {
+        var update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && ORDER.compare(x.next[i].result, result) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || ORDER.compare(x.result, result) != 0) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all the results.
+     */
+    public void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        size = 0;
+    }
+
+    /**
+     * {@return the 1-based place of a result, that is, one more than the number of results ranked
+     * before it} The result need not be stored.
+     * @param result a result
+     */
+    public int rank(GameResult result) {
+        int before = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && ORDER.compare(x.next[i].result, result) < 0) {
+                before += x.span[i];
+                x = x.next[i];
+            }
+        }
+        return before + 1;
+    }
+
+    /**
+     * {@return the best results in order}
+     * @param n the maximum number of results to be returned
+     */
+    public List<GameResult> top(int n) {
+        List<GameResult> results = new ArrayList<>(Math.max(0, Math.min(n, size)));
+        for (Node x = head.next[0]; x != null && results.size() < n; x = x.next[0]) {
+            results.add(x.result);
+        }
+        return results;
+    }
+
+    private int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
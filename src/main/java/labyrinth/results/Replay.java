@@ -0,0 +1,45 @@
+package labyrinth.results;
+
+import labyrinth.model.LevelId;
+import labyrinth.model.MoveDirection;
+
+/**
+ * Represents the recorded moves of a game, linked to its {@link GameResult} by id.
+ *
+ * @param gameId the id of the game result
+ * @param moves the moves in the order they were made
+ * @param millis the time of each move in milliseconds since the start of the game
+ * @param level the level the game was played on, or {@code null} for replays recorded before
+ *              levels were identified
+ */
+public record Replay(long gameId, MoveDirection[] moves, long[] millis, LevelId level) {
+
+    /**
+     * Creates a {@code Replay} object.
+     *
+     * @throws IllegalArgumentException if the number of moves and times differ
+     */
+    public Replay {
+        if (moves.length != millis.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Creates a {@code Replay} object of a game played on an unidentified level.
+     *
+     * @param gameId the id of the game result
+     * @param moves the moves in the order they were made
+     * @param millis the time of each move in milliseconds since the start of the game
+     */
+    public Replay(long gameId, MoveDirection[] moves, long[] millis) {
+        this(gameId, moves, millis, null);
+    }
+
+    /**
+     * {@return the number of moves}
+     */
+    public int size() {
+        return moves.length;
+    }
+}
@@ -0,0 +1,259 @@
+package labyrinth.results;
+
+import labyrinth.model.LevelId;
+import labyrinth.model.MoveDirection;
+import lombok.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Stores replays in an append-only binary file, usually {@code replays.bin}
+ * next to {@code results.json}.
+ *
+ * <p>Each record is a varint payload length followed by the payload: the varint
+ * game id, the varint number of moves, the moves packed four to a byte (two
+ * bits each), then the varint time of each move in milliseconds since the
+ * previous move. If the level is identified, the payload ends with the varint
+ * length and the UTF-8 bytes of its location and the 8-byte hash of its
+ * content; older records end after the times. Records are written and read
+ * through NIO channels, so an archive can be scanned without loading it into
+ * memory.</p>
+ */
+public class ReplayArchive {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+
+    /**
+     * Creates a {@code ReplayArchive} object.
+     *
+     * @param file the path of the archive file
+     */
+    public ReplayArchive(@NonNull final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * {@return the path of the archive file}
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Appends a replay to the archive.
+     *
+     * @param replay the replay to be appended
+     * @throws IOException if any I/O error occurs
+     */
+    public void append(@NonNull final Replay replay) throws IOException {
+        ByteBuffer buffer = encode(replay);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads every replay of the archive in the order they were appended.
+     *
+     * @param action the action to be performed for each replay
+     * @throws IOException if any I/O error occurs
+     */
+    public void forEach(@NonNull final Consumer<Replay> action) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel, action);
+        }
+    }
+
+    /**
+     * Finds the replay of a game by scanning the archive. If a game has several
+     * replays, the last one is returned.
+     *
+     * @param gameId the id of the game result
+     * @return the replay, or an empty {@code Optional} if there is none
+     * @throws IOException if any I/O error occurs
+     */
+    public Optional<Replay> find(final long gameId) throws IOException {
+        Replay[] found = new Replay[1];
+        forEach(replay -> {
+            if (replay.gameId() == gameId) {
+                found[0] = replay;
+            }
+        });
+        return Optional.ofNullable(found[0]);
+    }
+
+    /**
+     * Reads replays from a channel until its end.
+     *
+     * @param channel the channel from which the records are read
+     * @param action the action to be performed for each replay
+     * @throws EOFException if the last record is truncated
+     * @throws IOException if any other I/O error occurs or a record is corrupt
+     */
+    public static void read(ReadableByteChannel channel, Consumer<Replay> action) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                if (channel.read(buffer) == -1) {
+                    return;
+                }
+                buffer.flip();
+            }
+            buffer = fill(channel, buffer, Math.min(5, buffer.capacity()), false);
+            long length = readVarLong(buffer);
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Corrupt replay record length " + length);
+            }
+            buffer = fill(channel, buffer, (int) length, true);
+            int end = buffer.position() + (int) length;
+            action.accept(decode(buffer.slice(buffer.position(), (int) length)));
+            buffer.position(end);
+        }
+    }
+
+    private static ByteBuffer fill(ReadableByteChannel channel, ByteBuffer buffer, int needed, boolean required)
+            throws IOException {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        if (buffer.capacity() < needed) {
+            buffer = ByteBuffer.allocate(needed).put(buffer);
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) == -1) {
+                if (required) {
+                    throw new EOFException("Truncated replay record");
+                }
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    static ByteBuffer encode(Replay replay) {
+        int n = replay.size();
+        byte[] location = replay.level() == null
+                ? new byte[0]
+                : replay.level().location().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(20 + (n + 3) / 4 + n * 10 + 13 + location.length);
+        writeVarLong(payload, replay.gameId());
+        writeVarLong(payload, n);
+        for (int i = 0; i < n; i += 4) {
+            int packed = 0;
+            for (int j = 0; j < 4 && i + j < n; j++) {
+                packed |= replay.moves()[i + j].ordinal() << (j * 2);
+            }
+            payload.put((byte) packed);
+        }
+        long previous = 0;
+        for (long millis : replay.millis()) {
+            writeVarLong(payload, millis - previous);
+            previous = millis;
+        }
+        if (replay.level() != null) {
+            writeVarLong(payload, location.length);
+            payload.put(location);
+            payload.putLong(replay.level().hash());
+        }
+        payload.flip();
+
+        ByteBuffer record = ByteBuffer.allocate(5 + payload.remaining());
+        writeVarLong(record, payload.remaining());
+        record.put(payload);
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Decodes the payload of a record, which must span the whole buffer. The counts read from the
+     * payload are checked against its length before anything is allocated for them.
+     */
+    static Replay decode(ByteBuffer buffer) throws IOException {
+        long gameId = readVarLong(buffer);
+        long n = readVarLong(buffer);
+        // every move takes a quarter of a byte and at least one byte for its time
+        if (n > buffer.remaining() || n + (n + 3) / 4 > buffer.remaining()) {
+            throw new IOException("Corrupt replay record: " + n + " moves in " + buffer.remaining() + " bytes");
+        }
+        return decode(buffer, gameId, (int) n);
+    }
+
+    private static Replay decode(ByteBuffer buffer, long gameId, int n) throws IOException {
+        var moves = new MoveDirection[n];
+        for (int i = 0; i < n; i += 4) {
+            int packed = buffer.get() & 0xff;
+            for (int j = 0; j < 4 && i + j < n; j++) {
+                moves[i + j] = DIRECTIONS[(packed >>> (j * 2)) & 3];
+            }
+        }
+        var millis = new long[n];
+        long previous = 0;
+        for (int i = 0; i < n; i++) {
+            previous += readVarLong(buffer);
+            millis[i] = previous;
+        }
+        LevelId level = null;
+        if (buffer.hasRemaining()) {
+            long length = readVarLong(buffer);
+            if (length > buffer.remaining() - Long.BYTES) {
+                throw new IOException("Corrupt replay record: level location of " + length + " bytes");
+            }
+            var location = new byte[(int) length];
+            buffer.get(location);
+            level = new LevelId(new String(location, StandardCharsets.UTF_8), buffer.getLong());
+        }
+        return new Replay(gameId, moves, millis, level);
+    }
+
+    private static void writeVarLong(ByteBuffer buffer, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException("Truncated replay record");
+            }
+            if (shift >= Long.SIZE) {
+                throw new IOException("Corrupt replay record: varint longer than " + Long.SIZE + " bits");
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
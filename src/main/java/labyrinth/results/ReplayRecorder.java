@@ -0,0 +1,72 @@
+package labyrinth.results;
+
+import labyrinth.model.LevelId;
+import labyrinth.model.MoveDirection;
+
+import java.util.Arrays;
+
+/**
+ * Records the moves of a game in progress together with their times.
+ * Moves are recorded by their index in the move history, so recording a move
+ * after an undo overwrites the undone moves.
+ */
+public class ReplayRecorder {
+
+    private byte[] moves = new byte[64];
+    private long[] millis = new long[64];
+    private int size;
+
+    /**
+     * Records a move.
+     *
+     * @param index the index of the move in the move history
+     * @param moveDirection the direction of the move
+     * @param elapsedMillis the time of the move in milliseconds since the start of the game
+     */
+    public void record(int index, MoveDirection moveDirection, long elapsedMillis) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+            millis = Arrays.copyOf(millis, millis.length * 2);
+        }
+        moves[index] = (byte) moveDirection.ordinal();
+        millis[index] = elapsedMillis;
+        size = index + 1;
+    }
+
+    /**
+     * Removes every recorded move.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * {@return the replay of the first moves}
+     * @param gameId the id of the game result
+     * @param moveCount the number of moves leading to the final state
+     */
+    public Replay toReplay(long gameId, int moveCount) {
+        return toReplay(gameId, moveCount, null);
+    }
+
+    /**
+     * {@return the replay of the first moves}
+     * @param gameId the id of the game result
+     * @param moveCount the number of moves leading to the final state
+     * @param level the level the game is played on
+     */
+    public Replay toReplay(long gameId, int moveCount, LevelId level) {
+        if (moveCount < 0 || moveCount > size) {
+            throw new IndexOutOfBoundsException(moveCount);
+        }
+        var directions = MoveDirection.values();
+        var replayMoves = new MoveDirection[moveCount];
+        for (int i = 0; i < moveCount; i++) {
+            replayMoves[i] = directions[moves[i]];
+        }
+        return new Replay(gameId, replayMoves, Arrays.copyOf(millis, moveCount), level);
+    }
+}
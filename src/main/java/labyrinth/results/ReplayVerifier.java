@@ -0,0 +1,224 @@
+package labyrinth.results;
+
+import labyrinth.model.GameState;
+import labyrinth.model.Level;
+import labyrinth.model.LevelId;
+import labyrinth.model.LevelRegistry;
+import labyrinth.model.MoveDirection;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Checks stored game results against their replays by replaying the recorded
+ * moves on the level. Replays that identify their level are checked against
+ * that level, older ones against a default level. If a result has several
+ * replays, the last one in the archive is used, as by {@link ReplayArchive#find(long)}.
+ */
+public class ReplayVerifier {
+
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * Represents the outcome of verifying a single result.
+     */
+    public enum Verdict {
+        /**
+         * The result matches its replay.
+         */
+        VALID,
+        /**
+         * The level of the replay cannot be read or has changed since the game was played.
+         */
+        UNKNOWN_LEVEL,
+        /**
+         * There is no replay for the result.
+         */
+        MISSING_REPLAY,
+        /**
+         * A recorded move does not move the ball.
+         */
+        ILLEGAL_MOVE,
+        /**
+         * The number of steps differs from the number of recorded moves.
+         */
+        STEPS_MISMATCH,
+        /**
+         * The solved flag differs from whether the replay ends on the goal.
+         */
+        SOLVED_MISMATCH,
+        /**
+         * The duration is missing or shorter than the time of the last recorded move.
+         */
+        DURATION_MISMATCH
+    }
+
+    /**
+     * Represents the outcome of verifying a set of results.
+     *
+     * @param valid the number of valid results
+     * @param invalid the verdict of each invalid result, keyed by id
+     */
+    public record Report(int valid, Map<Long, Verdict> invalid) {
+    }
+
+    private final Level defaultLevel;
+    private final Function<LevelId, Optional<Level>> levels;
+    private final Map<LevelId, Optional<Level>> resolved = new ConcurrentHashMap<>();
+    private final int threads;
+
+    /**
+     * Creates a {@code ReplayVerifier} object that finds the levels of the replays in the
+     * {@link LevelRegistry}.
+     *
+     * @param defaultLevel the level of the replays that do not identify their level
+     * @param threads the number of worker threads used by {@link #verifyAll(Collection, ReplayArchive)}
+     */
+    public ReplayVerifier(@NonNull final Level defaultLevel, final int threads) {
+        this(defaultLevel, LevelRegistry.getInstance()::find, threads);
+    }
+
+    /**
+     * Creates a {@code ReplayVerifier} object.
+     *
+     * @param defaultLevel the level of the replays that do not identify their level
+     * @param levels the function that finds the level of an identifier, if it still exists unchanged
+     * @param threads the number of worker threads used by {@link #verifyAll(Collection, ReplayArchive)}
+     */
+    public ReplayVerifier(@NonNull final Level defaultLevel,
+                          @NonNull final Function<LevelId, Optional<Level>> levels,
+                          final int threads) {
+        this.defaultLevel = defaultLevel;
+        this.levels = levels;
+        this.threads = threads;
+    }
+
+    /**
+     * {@return the verdict of a single result}
+     * @param result the result to be verified
+     * @param replay the replay of the result
+     */
+    public Verdict verify(@NonNull final GameResult result, @NonNull final Replay replay) {
+        var level = replay.level() == null
+                ? Optional.of(defaultLevel)
+                : resolved.computeIfAbsent(replay.level(), levels);
+        if (level.isEmpty()) {
+            return Verdict.UNKNOWN_LEVEL;
+        }
+        var state = new GameState(level.get());
+        for (MoveDirection move : replay.moves()) {
+            if (!state.canMove(move)) {
+                return Verdict.ILLEGAL_MOVE;
+            }
+            state.move(move);
+        }
+        if (result.getSteps() != replay.size()) {
+            return Verdict.STEPS_MISMATCH;
+        }
+        if (result.isSolved() != state.isGoal()) {
+            return Verdict.SOLVED_MISMATCH;
+        }
+        long lastMove = replay.size() == 0 ? 0 : replay.millis()[replay.size() - 1];
+        if (result.getDuration() == null || result.getDuration().toMillis() < lastMove) {
+            return Verdict.DURATION_MISMATCH;
+        }
+        return Verdict.VALID;
+    }
+
+    /**
+     * Verifies every result against the replays of an archive. The archive is
+     * scanned once, and batches of replays are verified in parallel while it is
+     * being read.
+     *
+     * @param results the results to be verified
+     * @param archive the archive containing the replays
+     * @return the report of the verification
+     * @throws IOException if any I/O error occurs
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public Report verifyAll(@NonNull final Collection<GameResult> results, @NonNull final ReplayArchive archive)
+            throws IOException, InterruptedException {
+        GameResult[] byId = results.stream()
+                .filter(result -> result.getId() != null)
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .toArray(GameResult[]::new);
+        long[] ids = Arrays.stream(byId).mapToLong(GameResult::getId).toArray();
+        var seen = new BitSet(ids.length);
+        var verdicts = new Verdict[ids.length];
+        var verdictOf = new long[ids.length];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        var pool = new ForkJoinPool(threads);
+        try {
+            List<Replay> batch = new ArrayList<>(BATCH_SIZE);
+            long[] sequence = new long[1];
+            archive.forEach(replay -> {
+                int i = Arrays.binarySearch(ids, replay.gameId());
+                if (i < 0) {
+                    return;
+                }
+                seen.set(i);
+                batch.add(replay);
+                sequence[0]++;
+                if (batch.size() == BATCH_SIZE) {
+                    tasks.add(pool.submit(verifyBatch(List.copyOf(batch), sequence[0] - batch.size(),
+                            ids, byId, verdicts, verdictOf)));
+                    batch.clear();
+                }
+            });
+            tasks.add(pool.submit(verifyBatch(List.copyOf(batch), sequence[0] - batch.size(),
+                    ids, byId, verdicts, verdictOf)));
+            for (var task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        Map<Long, Verdict> invalid = new TreeMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (!seen.get(i)) {
+                invalid.put(ids[i], Verdict.MISSING_REPLAY);
+            } else if (verdicts[i] != Verdict.VALID) {
+                invalid.put(ids[i], verdicts[i]);
+            }
+        }
+        return new Report(ids.length - invalid.size(), Collections.unmodifiableMap(invalid));
+    }
+
+    /**
+     * Verifies a batch of replays, numbered consecutively in the order of the archive, and keeps the
+     * verdict of the last replay of each result.
+     */
+    private Runnable verifyBatch(List<Replay> batch, long firstSequence, long[] ids, GameResult[] byId,
+                                 Verdict[] verdicts, long[] verdictOf) {
+        return () -> {
+            for (int j = 0; j < batch.size(); j++) {
+                var replay = batch.get(j);
+                int i = Arrays.binarySearch(ids, replay.gameId());
+                var verdict = verify(byId[i], replay);
+                long sequence = firstSequence + j + 1;
+                synchronized (verdicts) {
+                    if (sequence > verdictOf[i]) {
+                        verdicts[i] = verdict;
+                        verdictOf[i] = sequence;
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package labyrinth.solver;
+
+import labyrinth.model.MoveDirection;
+import labyrinth.model.SlideTable;
+
+import java.util.Arrays;
+
+/**
+ * Finds the shortest solution by an A* search over the slide graph.
+ *
+ * <p>A move changes either the row or the column of the ball, so at least one
+ * move is needed from a square aligned with the goal and at least two from
+ * any other square. This lower bound is admissible and consistent, so every
+ * square is expanded at most once.</p>
+ */
+public class AStarSolver implements Solver {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+
+    @Override
+    public Solution solve(SlideTable slides, int start, int goal) {
+        int boardSize = slides.getBoardSize();
+        int cells = boardSize * boardSize;
+        int[] parent = new int[cells];
+        byte[] parentMove = new byte[cells];
+        int[] distance = new int[cells];
+        boolean[] closed = new boolean[cells];
+        Arrays.fill(parent, -1);
+        Arrays.fill(distance, Integer.MAX_VALUE);
+
+        var open = new OpenList(cells + 1);
+        parent[start] = start;
+        distance[start] = 0;
+        open.push(start, heuristic(boardSize, start, goal), 0);
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            int cell = open.pop();
+            if (closed[cell]) {
+                continue;
+            }
+            closed[cell] = true;
+            expanded++;
+            if (cell == goal) {
+                return new Solution(BreadthFirstSolver.path(parent, parentMove, start, goal), expanded);
+            }
+            int g = distance[cell] + 1;
+            for (var direction : DIRECTIONS) {
+                int next = slides.stop(cell, direction);
+                if (!closed[next] && g < distance[next]) {
+                    distance[next] = g;
+                    parent[next] = cell;
+                    parentMove[next] = (byte) direction.ordinal();
+                    open.push(next, g + heuristic(boardSize, next, goal), g);
+                }
+            }
+        }
+        return new Solution(null, expanded);
+    }
+
+    /**
+     * {@return a lower bound of the number of moves from a square to the goal}
+     * @param boardSize the size of the board
+     * @param cell the cell index of the square
+     * @param goal the cell index of the goal
+     */
+    static int heuristic(int boardSize, int cell, int goal) {
+        if (cell == goal) {
+            return 0;
+        }
+        if (cell / boardSize == goal / boardSize || cell % boardSize == goal % boardSize) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /**
+     * A binary min-heap of cell indices ordered by their estimated total cost,
+     * preferring deeper squares on ties. Stale entries are skipped by the caller.
+     */
+    private static final class OpenList {
+
+        private int[] cells;
+        private int[] costs;
+        private int[] depths;
+        private int size;
+
+        OpenList(int capacity) {
+            cells = new int[capacity];
+            costs = new int[capacity];
+            depths = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int cell, int cost, int depth) {
+            if (size == cells.length) {
+                int capacity = size * 2;
+                cells = Arrays.copyOf(cells, capacity);
+                costs = Arrays.copyOf(costs, capacity);
+                depths = Arrays.copyOf(depths, capacity);
+            }
+            int i = size++;
+            while (i > 0) {
+                int up = (i - 1) / 2;
+                if (!less(cost, depth, costs[up], depths[up])) {
+                    break;
+                }
+                set(i, cells[up], costs[up], depths[up]);
+                i = up;
+            }
+            set(i, cell, cost, depth);
+        }
+
+        int pop() {
+            int top = cells[0];
+            size--;
+            int cell = cells[size];
+            int cost = costs[size];
+            int depth = depths[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && less(costs[child + 1], depths[child + 1], costs[child], depths[child])) {
+                    child++;
+                }
+                if (!less(costs[child], depths[child], cost, depth)) {
+                    break;
+                }
+                set(i, cells[child], costs[child], depths[child]);
+                i = child;
+            }
+            set(i, cell, cost, depth);
+            return top;
+        }
+
+        private void set(int i, int cell, int cost, int depth) {
+            cells[i] = cell;
+            costs[i] = cost;
+            depths[i] = depth;
+        }
+
+        private static boolean less(int cost, int depth, int otherCost, int otherDepth) {
+            return cost < otherCost || (cost == otherCost && depth > otherDepth);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package labyrinth.solver;
+
+import labyrinth.model.MoveDirection;
+import labyrinth.model.SlideTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the shortest solution by a bidirectional breadth-first search. The
+ * forward search rolls the ball from the start, the backward search expands
+ * from the goal along reverse slides. The smaller frontier is expanded one
+ * whole layer at a time, and the search stops after the first layer in which
+ * the two searches meet, choosing the shortest of the paths found in that layer.
+ */
+public class BidirectionalSolver implements Solver {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+
+    @Override
+    public Solution solve(SlideTable slides, int start, int goal) {
+        if (start == goal) {
+            return new Solution(List.of(), 0);
+        }
+        int cells = slides.getBoardSize() * slides.getBoardSize();
+        int[] parent = new int[cells];
+        byte[] parentMove = new byte[cells];
+        int[] forwardDistance = new int[cells];
+        int[] child = new int[cells];
+        byte[] childMove = new byte[cells];
+        int[] backwardDistance = new int[cells];
+        int[] forwardQueue = new int[cells];
+        int[] backwardQueue = new int[cells];
+        Arrays.fill(forwardDistance, -1);
+        Arrays.fill(backwardDistance, -1);
+
+        parent[start] = start;
+        forwardDistance[start] = 0;
+        child[goal] = goal;
+        backwardDistance[goal] = 0;
+        forwardQueue[0] = start;
+        backwardQueue[0] = goal;
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+        int expanded = 0;
+        int meet = -1;
+        int best = Integer.MAX_VALUE;
+        while (meet == -1 && forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int layerEnd = forwardTail;
+                for (; forwardHead < layerEnd; forwardHead++) {
+                    int cell = forwardQueue[forwardHead];
+                    expanded++;
+                    for (var direction : DIRECTIONS) {
+                        int next = slides.stop(cell, direction);
+                        if (forwardDistance[next] == -1) {
+                            parent[next] = cell;
+                            parentMove[next] = (byte) direction.ordinal();
+                            forwardDistance[next] = forwardDistance[cell] + 1;
+                            forwardQueue[forwardTail++] = next;
+                            if (backwardDistance[next] != -1
+                                    && forwardDistance[next] + backwardDistance[next] < best) {
+                                best = forwardDistance[next] + backwardDistance[next];
+                                meet = next;
+                            }
+                        }
+                    }
+                }
+            } else {
+                int layerEnd = backwardTail;
+                for (; backwardHead < layerEnd; backwardHead++) {
+                    int cell = backwardQueue[backwardHead];
+                    expanded++;
+                    for (var direction : DIRECTIONS) {
+                        for (int prev = slides.previous(cell, cell, direction); prev != -1;
+                             prev = slides.previous(prev, cell, direction)) {
+                            if (backwardDistance[prev] == -1) {
+                                child[prev] = cell;
+                                childMove[prev] = (byte) direction.ordinal();
+                                backwardDistance[prev] = backwardDistance[cell] + 1;
+                                backwardQueue[backwardTail++] = prev;
+                                if (forwardDistance[prev] != -1
+                                        && forwardDistance[prev] + backwardDistance[prev] < best) {
+                                    best = forwardDistance[prev] + backwardDistance[prev];
+                                    meet = prev;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (meet == -1) {
+            return new Solution(null, expanded);
+        }
+        List<MoveDirection> moves = new ArrayList<>(BreadthFirstSolver.path(parent, parentMove, start, meet));
+        for (int cell = meet; cell != goal; cell = child[cell]) {
+            moves.add(DIRECTIONS[childMove[cell]]);
+        }
+        return new Solution(moves, expanded);
+    }
+}
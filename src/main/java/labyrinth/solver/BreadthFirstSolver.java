@@ -0,0 +1,86 @@
+package labyrinth.solver;
+
+import labyrinth.model.MoveDirection;
+import labyrinth.model.SlideTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the shortest solution by a breadth-first search over the slide graph.
+ * Every move costs one, so the first time the goal is dequeued its path is optimal.
+ */
+public class BreadthFirstSolver implements Solver {
+
+    private static final MoveDirection[] DIRECTIONS = MoveDirection.values();
+
+    @Override
+    public Solution solve(SlideTable slides, int start, int goal) {
+        int cells = slides.getBoardSize() * slides.getBoardSize();
+        int[] parent = new int[cells];
+        byte[] parentMove = new byte[cells];
+        int[] queue = new int[cells];
+        Arrays.fill(parent, -1);
+
+        parent[start] = start;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == goal) {
+                return new Solution(path(parent, parentMove, start, goal), head);
+            }
+            for (var direction : DIRECTIONS) {
+                int next = slides.stop(cell, direction);
+                if (parent[next] == -1) {
+                    parent[next] = cell;
+                    parentMove[next] = (byte) direction.ordinal();
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return new Solution(null, head);
+    }
+
+    /**
+     * Computes the minimum number of moves from a square to every square of the board.
+     *
+     * @param slides the slide table of the level
+     * @param start the cell index of the square the ball starts from
+     * @return the number of moves indexed by cell, {@code -1} for squares the ball cannot stop on
+     */
+    public static int[] distancesFrom(SlideTable slides, int start) {
+        int cells = slides.getBoardSize() * slides.getBoardSize();
+        int[] distance = new int[cells];
+        int[] queue = new int[cells];
+        Arrays.fill(distance, -1);
+
+        distance[start] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            for (var direction : DIRECTIONS) {
+                int next = slides.stop(cell, direction);
+                if (distance[next] == -1) {
+                    distance[next] = distance[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distance;
+    }
+
+    static List<MoveDirection> path(int[] parent, byte[] parentMove, int start, int goal) {
+        List<MoveDirection> moves = new ArrayList<>();
+        for (int cell = goal; cell != start; cell = parent[cell]) {
+            moves.add(DIRECTIONS[parentMove[cell]]);
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+}
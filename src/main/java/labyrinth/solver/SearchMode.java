@@ -0,0 +1,27 @@
+package labyrinth.solver;
+
+import java.util.function.Supplier;
+
+/**
+ * Represents the available search algorithms.
+ */
+public enum SearchMode {
+
+    BREADTH_FIRST(BreadthFirstSolver::new),
+    A_STAR(AStarSolver::new),
+    BIDIRECTIONAL(BidirectionalSolver::new);
+
+    private final Supplier<Solver> factory;
+
+    SearchMode(Supplier<Solver> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * {@return a new solver using the search algorithm}
+     */
+    public Solver newSolver() {
+        return factory.get();
+    }
+
+}
@@ -0,0 +1,28 @@
+package labyrinth.solver;
+
+import labyrinth.model.MoveDirection;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of a search.
+ *
+ * @param moves the moves leading from the start to the goal, or {@code null} if the goal is unreachable
+ * @param expanded the number of squares expanded by the search
+ */
+public record Solution(List<MoveDirection> moves, int expanded) {
+
+    /**
+     * {@return whether the goal is reachable}
+     */
+    public boolean isSolvable() {
+        return moves != null;
+    }
+
+    /**
+     * {@return the number of moves leading to the goal, or {@code -1} if the goal is unreachable}
+     */
+    public int getMoveCount() {
+        return moves == null ? -1 : moves.size();
+    }
+}
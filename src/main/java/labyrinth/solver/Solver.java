@@ -0,0 +1,65 @@
+package labyrinth.solver;
+
+import labyrinth.model.GameState;
+import labyrinth.model.LabyrinthState;
+import labyrinth.model.Level;
+import labyrinth.model.Position;
+import labyrinth.model.SlideTable;
+
+/**
+ * Provides a generic interface for finding the shortest sequence of moves
+ * that rolls the ball to the goal. The solvers search the slide graph of a
+ * single ball, so levels with several balls are rejected.
+ */
+public interface Solver {
+
+    /**
+     * Searches the slide graph of a level.
+     *
+     * @param slides the slide table of the level
+     * @param start the cell index of the square the ball starts from
+     * @param goal the cell index of the goal
+     * @return the outcome of the search
+     */
+    Solution solve(SlideTable slides, int start, int goal);
+
+    /**
+     * Searches for the shortest solution from the specified position.
+     *
+     * @param level the level
+     * @param from the position the ball starts from
+     * @return the outcome of the search
+     * @throws IllegalArgumentException if the level has several balls
+     */
+    default Solution solve(Level level, Position from) {
+        if (level.getBallCount() > 1) {
+            throw new IllegalArgumentException("Levels with several balls are not supported");
+        }
+        return solve(level.getSlides(), level.cellOf(from), level.cellOf(level.getGoal()));
+    }
+
+    /**
+     * Searches for the shortest solution from the current position of the blue ball.
+     *
+     * @param state the state of the game
+     * @return the outcome of the search
+     * @throws IllegalArgumentException if the level has several balls
+     */
+    default Solution solve(GameState state) {
+        if (state.getBallCount() > 1) {
+            throw new IllegalArgumentException("Levels with several balls are not supported");
+        }
+        return solve(state.getLevel().getSlides(), state.getBallCell(), state.getGoalCell());
+    }
+
+    /**
+     * Searches for the shortest solution from the current position of the blue ball.
+     *
+     * @param state the state of the labyrinth
+     * @return the outcome of the search
+     * @throws IllegalArgumentException if the level has several balls
+     */
+    default Solution solve(LabyrinthState state) {
+        return solve(state.getGameState());
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains the classes for solving labyrinth levels.
+ */
+package labyrinth.solver;
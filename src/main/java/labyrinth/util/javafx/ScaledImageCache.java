@@ -0,0 +1,107 @@
+package labyrinth.util.javafx;
+
+import javafx.scene.image.Image;
+import lombok.Setter;
+import org.tinylog.Logger;
+
+/**
+ * Provides an image storage for ordinal keys that loads the images in the
+ * background, scaled to the size at which they are drawn. When the size
+ * changes, the images are loaded again at the new size, and the images of the
+ * previous size are returned until the new ones are ready.
+ */
+public class ScaledImageCache implements ImageStorage<Integer> {
+
+    private final String[] urls;
+    private final Image[] images;
+    private final Image[] ready;
+    private double size;
+
+    /**
+     * The action to be performed on the JavaFX application thread when an image has been loaded.
+     */
+    @Setter
+    private Runnable onLoaded;
+
+    /**
+     * Creates a {@code ScaledImageCache} object.
+     *
+     * @param path the path of the directory containing the images
+     * @param filenames the filenames of the images
+     */
+    public ScaledImageCache(String path, String... filenames) {
+        urls = new String[filenames.length];
+        for (var i = 0; i < filenames.length; i++) {
+            urls[i] = String.format("%s/%s", path, filenames[i]);
+        }
+        images = new Image[filenames.length];
+        ready = new Image[filenames.length];
+    }
+
+    /**
+     * {@return the size to which the images are scaled}
+     */
+    public double getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the size to which the images are scaled, and starts loading them if the size has changed.
+     *
+     * @param size the width and height of the bounding box of the images
+     */
+    public void setSize(double size) {
+        if (size == this.size) {
+            return;
+        }
+        this.size = size;
+        for (var i = 0; i < urls.length; i++) {
+            images[i] = load(i, size);
+        }
+    }
+
+    private Image load(int index, double size) {
+        Image image;
+        try {
+            image = new Image(urls[index], size, size, true, true, true);
+        } catch (IllegalArgumentException e) {
+            Logger.error("Image {} was not found", urls[index]);
+            return null;
+        }
+        image.progressProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= 1.0) {
+                handleLoaded(index, image);
+            }
+        });
+        image.errorProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue) {
+                Logger.error(image.getException(), "Failed to load image {}", urls[index]);
+            }
+        });
+        if (image.getProgress() >= 1.0) {
+            handleLoaded(index, image);
+        }
+        return image;
+    }
+
+    private void handleLoaded(int index, Image image) {
+        if (image.isError() || image != images[index]) {
+            return;
+        }
+        ready[index] = image;
+        if (onLoaded != null) {
+            onLoaded.run();
+        }
+    }
+
+    /**
+     * @param key the key of the image
+     * {@return the image associated with the given key} It is the image of the current size if it has
+     * been loaded, otherwise the image of the previous size or the one still being loaded.
+     */
+    @Override
+    public Image get(Integer key) {
+        return ready[key] != null ? ready[key] : images[key];
+    }
+
+}
@@ -1,135 +1,232 @@
 package labyrinth.util.repository;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.NullNode;
 import lombok.NonNull;
+import org.tinylog.Logger;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a repository to obtain a set of objects. Data is read from a
  * JSON file that contains an array of JSON objects. The implementation uses a hashcode-based set.
  *
+ * <p>A repository {@linkplain #open(File) opened} on a file keeps a journal
+ * next to it, the file name followed by {@code .journal}. Every change is
+ * appended to the journal as one JSON Lines record, instead of rewriting the
+ * whole file. Records are written by a dedicated thread, see
+ * {@link JournalOptions}, so changing the repository does not wait for the
+ * disk unless the queue of records is full. Another thread periodically compacts the journal: it
+ * writes the whole set to a temporary file, renames it atomically over the
+ * snapshot, then removes the records it contains from the journal. Loading
+ * replays the journal over the snapshot; a record left incomplete by a crash
+ * is ignored. Replacing all the elements appends a JSON {@code null} record,
+ * which removes every element, followed by the new elements, and forces them
+ * to disk before the snapshot is replaced, so a crash in between can not bring
+ * back the removed elements.</p>
+ *
  * @param <T> the type of the elements
  */
 public abstract class FileSystemRepository<T>
-        extends JacksonJsonRepository {
+        extends JacksonJsonRepository implements Closeable {
+
+    /**
+     * The suffix added to the name of the snapshot file to obtain the name of the journal.
+     */
+    public static final String JOURNAL_SUFFIX = ".journal";
 
-    private Set<T> elements;
+    private static final Object CLEAR = NullNode.getInstance();
+
+    private final Map<T, T> elements;
+    private volatile Set<T> view;
     private final Class<T> elementsClass;
+    private final Object compactionLock = new Object();
+
+    private File snapshotFile;
+    private JournalWriter journal;
+    private ScheduledExecutorService compactor;
+
+    /**
+     * The records of a journal up to the end of the last complete one. A {@code null} record
+     * removes all the elements.
+     */
+    private record Journal<T>(List<T> records, long length) {
+    }
 
     protected FileSystemRepository(
             @NonNull final Class<T> elementClass) {
 
         this.elementsClass = elementClass;
-        this.elements = new HashSet<>();
+        this.elements = new HashMap<>();
     }
 
     /**
-     * {@return the list of objects}
+     * {@return an immutable snapshot of the set of objects} The snapshot is taken on the first call
+     * after a change and shared by all later calls until the next change, so reading the repository
+     * repeatedly does not copy the elements.
      */
     public Set<T> getAll() {
-        return new HashSet<>(elements);
+        var snapshot = view;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (view == null) {
+                    view = Set.copyOf(elements.keySet());
+                }
+                snapshot = view;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * {@return the number of objects}
+     */
+    public synchronized int size() {
+        return elements.size();
     }
 
     /**
      * Adds an element to the repository if it does net exist.
      *
      * @param element the element to be added
-     * @return the view of the updated repository
+     * @return whether the element has been added
      */
-    public Set<T> addOne(
+    public synchronized boolean addOne(
             @NonNull final T element) {
 
-        elements.add(element);
-        return getAll();
+        if (elements.containsKey(element)) {
+            return false;
+        }
+        elements.put(element, element);
+        elementAdded(element);
+        view = null;
+        append(List.of(element));
+        return true;
     }
 
     /**
      * Adds each element to the repository which does not exist.
      *
      * @param elements the elements to be added
-     * @return the view of the updated repository
      */
-    public Set<T> addMany(
+    public void addMany(
             @NonNull final Collection<T> elements) {
 
         elements.forEach(this::addOne);
-        return getAll();
     }
 
     /**
      * Replaces an element of the repository if it already exists. Otherwise adds an element to the repository.
      *
      * @param element the element to be replaced
-     * @return the view of the updated repository
      */
-    public Set<T> replaceOne(
+    public synchronized void replaceOne(
             @NonNull final T element) {
 
-        elements.remove(element);
-        elements.add(element);
-        return getAll();
+        upsert(element);
+        view = null;
+        append(List.of(element));
     }
 
     /**
      * Replaces each element of the repository which already exists and adds each element to the repository which does not exist.
      *
      * @param elements the elements to be replaced
-     * @return the view of the updated repository
      */
-    public Set<T> replaceMany(
+    public synchronized void replaceMany(
             @NonNull final Collection<T> elements) {
 
-        this.elements.removeAll(elements);
-        this.elements.addAll(elements);
-        return getAll();
+        elements.forEach(this::upsert);
+        view = null;
+        append(elements);
     }
 
     /**
      * Clears the repository.
-     *
-     * @return the view of the updated repository
      */
-    public Set<T> clear() {
-        this.elements.clear();
-        return getAll();
+    public void clear() {
+        replaceAll(List.of());
     }
 
     /**
      * Clears the repository, then re-initializes it with the set of elements.
      *
      * @param elements the elements to be added
-     * @return the view of the updated repository
      */
-    public Set<T> replaceAll(
+    public void replaceAll(
             @NonNull final Collection<T> elements) {
 
-        clear();
-        this.elements.addAll(elements);
-        return getAll();
+        synchronized (compactionLock) {
+            synchronized (this) {
+                reset(elements);
+                view = null;
+                if (journal != null) {
+                    try {
+                        journal.append(CLEAR);
+                        append(elements);
+                        journal.flush();
+                        writeSnapshot(snapshotFile, getAll());
+                        journal.trim(journal.length());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+        }
     }
 
     /**
-     * Initializes the repository from a file.
+     * Initializes the repository from a file and the records of its journal, if any. The files are
+     * read before the repository is locked.
      *
      * @param file the file which contains the JSON document
-     * @return the view of the updated repository
-     * @throws IOException if any I/O error occurs
+     * @return a snapshot of the updated repository
+     * @throws FileNotFoundException if neither the file nor its journal exists
+     * @throws IOException if any other I/O error occurs
      */
     public Set<T> loadFromFile(
             @NonNull final File file) throws IOException {
 
-        elements = readSet(new FileInputStream(file), this.elementsClass);
-        return elements;
+        Path journalPath = journalOf(file);
+        if (!file.exists() && !Files.exists(journalPath)) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        var snapshot = readSnapshot(file);
+        var records = readJournal(journalPath);
+        synchronized (this) {
+            reset(snapshot);
+            replay(records);
+            view = null;
+            loaded(file);
+            return getAll();
+        }
     }
 
     /**
-     * Saves the repository to a file.
+     * Saves the repository to a file. The file is replaced atomically. If it is the file the
+     * repository is opened on, the journal is compacted instead.
      *
      * @param file the file which will contain the JSON document
      * @throws IOException if any I/O error occurs
@@ -137,6 +234,315 @@ public abstract class FileSystemRepository<T>
     public void saveToFile(
             @NonNull final File file) throws IOException {
 
-        writeSet(new FileOutputStream(file), elements);
+        synchronized (this) {
+            if (journal == null || !file.equals(snapshotFile)) {
+                writeSnapshot(file, getAll());
+                return;
+            }
+        }
+        compact();
+    }
+
+    /**
+     * Opens the repository on a file with the default options. See {@link #open(File, JournalOptions)}.
+     *
+     * @param file the snapshot file, which need not exist
+     * @return a snapshot of the updated repository
+     * @throws IOException if any I/O error occurs
+     */
+    public Set<T> open(
+            @NonNull final File file) throws IOException {
+
+        return open(file, JournalOptions.DEFAULT);
+    }
+
+    /**
+     * Opens the repository on a file with the default options except the compaction interval. See
+     * {@link #open(File, JournalOptions)}.
+     *
+     * @param file the snapshot file, which need not exist
+     * @param compactionInterval the time between two compactions
+     * @return a snapshot of the updated repository
+     * @throws IOException if any I/O error occurs
+     */
+    public Set<T> open(
+            @NonNull final File file,
+            @NonNull final Duration compactionInterval) throws IOException {
+
+        return open(file, JournalOptions.DEFAULT.withCompactionInterval(compactionInterval));
+    }
+
+    /**
+     * Opens the repository on a file. The elements are recovered from the file and its journal,
+     * an incomplete record at the end of the journal is removed, and from then on every change is
+     * appended to the journal. The files are read before the repository is locked, so it can be
+     * opened on a background thread. It does nothing if the repository is already opened on the file.
+     *
+     * @param file the snapshot file, which need not exist
+     * @param options how the journal is written and compacted
+     * @return a snapshot of the updated repository
+     * @throws IOException if any I/O error occurs
+     */
+    public Set<T> open(
+            @NonNull final File file,
+            @NonNull final JournalOptions options) throws IOException {
+
+        synchronized (compactionLock) {
+            if (file.equals(getFile())) {
+                return getAll();
+            }
+            close();
+            var snapshot = readSnapshot(file);
+            Path journalPath = journalOf(file);
+            var records = readJournal(journalPath);
+            var writer = new JournalWriter(journalPath, records.length(), options);
+            synchronized (this) {
+                reset(snapshot);
+                replay(records);
+                view = null;
+                try {
+                    loaded(file);
+                } catch (IOException e) {
+                    writer.close();
+                    throw e;
+                }
+                snapshotFile = file;
+                journal = writer;
+                compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    var thread = new Thread(runnable, "repository-compactor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                long millis = options.compactionInterval().toMillis();
+                compactor.scheduleWithFixedDelay(this::compactQuietly, millis, millis, TimeUnit.MILLISECONDS);
+                return getAll();
+            }
+        }
+    }
+
+    /**
+     * {@return whether the repository is opened on a file}
+     */
+    public synchronized boolean isOpen() {
+        return journal != null;
+    }
+
+    /**
+     * {@return the snapshot file the repository is opened on, or {@code null} if it is not opened}
+     */
+    protected synchronized File getFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Waits until the changes made so far have been written to the journal and forced to disk. It
+     * does nothing if the repository is not opened on a file.
+     *
+     * @throws IOException if writing any change has failed
+     */
+    public void flush() throws IOException {
+        JournalWriter writer;
+        synchronized (this) {
+            writer = journal;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the pending changes, then writes the elements to the snapshot file and removes the
+     * records it contains from the journal. Records appended meanwhile are kept. It does nothing if
+     * the repository is not opened on a file.
+     *
+     * @throws IOException if any I/O error occurs
+     */
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            flush();
+            Set<T> copy;
+            long length;
+            JournalWriter writer;
+            File file;
+            synchronized (this) {
+                writer = journal;
+                file = snapshotFile;
+                if (writer == null) {
+                    return;
+                }
+                copy = getAll();
+                length = writer.length();
+            }
+            if (length == 0 && file.exists()) {
+                return;
+            }
+            writeSnapshot(file, copy);
+            writer.trim(length);
+            Logger.debug("Compacted {} bytes of journal into {}", length, file);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException e) {
+            Logger.warn(e, "Failed to compact the journal of {}", getFile());
+        }
+    }
+
+    /**
+     * Stops the background compaction, writes the pending changes, compacts the journal and closes
+     * it. The elements are kept in memory.
+     *
+     * @throws IOException if any I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (compactionLock) {
+            if (!isOpen()) {
+                return;
+            }
+            compactor.shutdown();
+            compact();
+            JournalWriter writer;
+            synchronized (this) {
+                writer = journal;
+                journal = null;
+                compactor = null;
+                snapshotFile = null;
+            }
+            writer.close();
+        }
+    }
+
+    /**
+     * {@return the path of the journal of a snapshot file}
+     * @param file the snapshot file
+     */
+    public static Path journalOf(@NonNull final File file) {
+        return Path.of(file.getPath() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Called with the repository locked when the elements have been loaded from a file, before any
+     * other thread can see them. Subclasses may override it to restore state kept next to the file.
+     *
+     * @param file the snapshot file
+     * @throws IOException if any I/O error occurs
+     */
+    protected void loaded(File file) throws IOException {
+    }
+
+    /**
+     * Called with the repository locked when an element has been added. Subclasses may override it to
+     * maintain indexes.
+     *
+     * @param element the element added
+     */
+    protected void elementAdded(T element) {
+    }
+
+    /**
+     * Called with the repository locked when an element has been removed or is about to be replaced.
+     *
+     * @param element the element removed
+     */
+    protected void elementRemoved(T element) {
+    }
+
+    /**
+     * Called with the repository locked when all the elements have been removed.
+     */
+    protected void elementsCleared() {
+    }
+
+    private void upsert(T element) {
+        T previous = elements.remove(element);
+        if (previous != null) {
+            elementRemoved(previous);
+        }
+        elements.put(element, element);
+        elementAdded(element);
+    }
+
+    private void reset(Collection<T> replacement) {
+        elements.clear();
+        elementsCleared();
+        replacement.forEach(this::upsert);
+    }
+
+    private void replay(Journal<T> journal) {
+        for (T record : journal.records()) {
+            if (record == null) {
+                reset(List.of());
+            } else {
+                upsert(record);
+            }
+        }
+    }
+
+    private Set<T> readSnapshot(File file) throws IOException {
+        if (!file.exists()) {
+            return Set.of();
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return readSet(in, elementsClass);
+        }
+    }
+
+    /**
+     * Reads the records of a journal, stopping at the first incomplete one.
+     */
+    private Journal<T> readJournal(Path journalPath) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return new Journal<>(List.of(), 0);
+        }
+        byte[] bytes = Files.readAllBytes(journalPath);
+        List<T> records = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            try {
+                records.add(MAPPER.readValue(bytes, start, i - start, elementsClass));
+            } catch (JsonProcessingException e) {
+                break;
+            }
+            start = i + 1;
+        }
+        if (start < bytes.length) {
+            Logger.warn("Ignoring {} bytes of incomplete records at the end of {}", bytes.length - start, journalPath);
+        }
+        return new Journal<>(records, start);
+    }
+
+    private void append(Collection<T> records) {
+        if (journal != null) {
+            records.forEach(journal::append);
+        }
+    }
+
+    private static <T> void writeSnapshot(File file, Set<T> elements) throws IOException {
+        writeAtomically(file.toPath(), MAPPER.writeValueAsBytes(elements));
+    }
+
+    /**
+     * Replaces the content of a file atomically: the content is written to a temporary file and
+     * forced to disk, then the temporary file is renamed over the target.
+     *
+     * @param path the path of the file
+     * @param content the new content of the file
+     * @throws IOException if any I/O error occurs
+     */
+    protected static void writeAtomically(Path path, byte[] content) throws IOException {
+        Path target = path.toAbsolutePath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            JournalWriter.writeFully(channel, ByteBuffer.wrap(content));
+            channel.force(false);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
     }
-}
\ No newline at end of file
+}
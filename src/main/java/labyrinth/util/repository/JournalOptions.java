@@ -0,0 +1,71 @@
+package labyrinth.util.repository;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Represents how the journal of a {@link FileSystemRepository} is written.
+ *
+ * @param queueCapacity the number of records waiting to be written beyond which changing the
+ *                      repository blocks until the writer catches up
+ * @param batchSize the maximum number of records written at once
+ * @param flushInterval the maximum time records stay written but not forced to disk under
+ *                      {@link FsyncPolicy#INTERVAL}
+ * @param fsyncPolicy when the written records are forced to disk
+ * @param compactionInterval the time between two compactions of the journal
+ */
+public record JournalOptions(
+        int queueCapacity,
+        int batchSize,
+        @NonNull Duration flushInterval,
+        @NonNull FsyncPolicy fsyncPolicy,
+        @NonNull Duration compactionInterval) {
+
+    /**
+     * Represents when the written records are forced to disk.
+     */
+    public enum FsyncPolicy {
+        /**
+         * After every batch.
+         */
+        ALWAYS,
+        /**
+         * At most once per flush interval.
+         */
+        INTERVAL,
+        /**
+         * Only on {@link FileSystemRepository#flush()}, on compaction and on closing.
+         */
+        NEVER
+    }
+
+    /**
+     * The default options.
+     */
+    public static final JournalOptions DEFAULT = new JournalOptions(
+            1024, 256, Duration.ofMillis(100), FsyncPolicy.ALWAYS, Duration.ofMinutes(1));
+
+    public JournalOptions {
+        if (queueCapacity <= 0 || batchSize <= 0 || flushInterval.isNegative() || flushInterval.isZero()
+                || compactionInterval.isNegative() || compactionInterval.isZero()) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * {@return a copy of the options with the specified compaction interval}
+     * @param compactionInterval the time between two compactions of the journal
+     */
+    public JournalOptions withCompactionInterval(@NonNull Duration compactionInterval) {
+        return new JournalOptions(queueCapacity, batchSize, flushInterval, fsyncPolicy, compactionInterval);
+    }
+
+    /**
+     * {@return a copy of the options with the specified fsync policy}
+     * @param fsyncPolicy when the written records are forced to disk
+     */
+    public JournalOptions withFsyncPolicy(@NonNull FsyncPolicy fsyncPolicy) {
+        return new JournalOptions(queueCapacity, batchSize, flushInterval, fsyncPolicy, compactionInterval);
+    }
+}
@@ -0,0 +1,286 @@
+package labyrinth.util.repository;
+
+import org.tinylog.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends records to a journal as JSON Lines on a dedicated thread. Records
+ * are queued by the callers and written in batches; when the queue is full,
+ * {@link #append(Object)} blocks until the writer catches up. Written records
+ * are forced to disk according to the {@link JournalOptions.FsyncPolicy}.
+ *
+ * <p>If a batch can not be written, the journal is truncated back to the end
+ * of the previous batch, so no partial record is left, and the failure is
+ * reported by the next {@link #flush()}. If even the truncation fails, the
+ * writer stops, and every later call fails instead of waiting for it.</p>
+ */
+final class JournalWriter implements Closeable {
+
+    /**
+     * The longest time a caller waits for the writer before checking that it is still running.
+     */
+    private static final long CHECK_INTERVAL_MILLIS = 100;
+
+    private final Path path;
+    private final JournalOptions options;
+    private final BlockingQueue<Object> queue;
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Thread thread;
+
+    private FileChannel channel;
+    private long written;
+    private boolean dirty;
+    private long lastForce = System.nanoTime();
+    private IOException failure;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+
+    /**
+     * Opens a journal, dropping everything after the specified length, and starts the writer thread.
+     *
+     * @param path the path of the journal
+     * @param length the length of the journal to be kept
+     * @param options the options of the journal
+     * @throws IOException if any I/O error occurs
+     */
+    JournalWriter(Path path, long length, JournalOptions options) throws IOException {
+        this.path = path;
+        this.options = options;
+        this.queue = new ArrayBlockingQueue<>(options.queueCapacity());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(length);
+        channel.position(length);
+        thread = new Thread(this::run, "journal-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a record, waiting for space if the queue is full.
+     *
+     * @param record the object to be serialized as a record
+     * @throws UncheckedIOException if the writer has stopped or the thread is interrupted while waiting
+     */
+    void append(Object record) {
+        try {
+            do {
+                checkRunning();
+            } while (!queue.offer(record, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while queueing a record"));
+        }
+        enqueued.incrementAndGet();
+    }
+
+    /**
+     * Waits until the records queued so far have been written, then forces them to disk.
+     *
+     * @throws IOException if writing any record has failed since the last call, or the writer has
+     * stopped before writing them
+     */
+    synchronized void flush() throws IOException {
+        long target = enqueued.get();
+        try {
+            while (written < target) {
+                checkRunning();
+                wait(CHECK_INTERVAL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing " + path);
+        }
+        force();
+        if (failure != null) {
+            var e = failure;
+            failure = null;
+            throw e;
+        }
+    }
+
+    /**
+     * {@return the length of the journal written so far}
+     */
+    synchronized long length() throws IOException {
+        return channel.position();
+    }
+
+    /**
+     * Removes the first bytes of the journal, which are already contained in the snapshot. The
+     * journal is replaced atomically by a copy of its tail.
+     *
+     * @param compacted the number of bytes to be removed
+     * @throws IOException if any I/O error occurs
+     */
+    synchronized void trim(long compacted) throws IOException {
+        long end = channel.position();
+        ByteBuffer tail = ByteBuffer.allocate((int) (end - compacted));
+        while (tail.hasRemaining() && channel.read(tail, compacted + tail.position()) >= 0) {
+            // reads the records appended since the copy of the elements was taken
+        }
+        tail.flip();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel copy = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(copy, tail);
+            copy.force(false);
+        }
+        channel.close();
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        dirty = false;
+    }
+
+    /**
+     * Writes the queued records, stops the writer thread and closes the journal.
+     *
+     * @throws IOException if writing any record has failed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing " + path);
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (this) {
+                channel.close();
+            }
+        }
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(options.batchSize());
+        long timeout = options.flushInterval().toNanos();
+        while (!stopped && (!closed || !queue.isEmpty())) {
+            try {
+                Object first = queue.poll(timeout, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, options.batchSize() - 1);
+                    write(batch);
+                    batch.clear();
+                }
+                if (options.fsyncPolicy() == JournalOptions.FsyncPolicy.INTERVAL) {
+                    synchronized (this) {
+                        if (System.nanoTime() - lastForce >= timeout) {
+                            force();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Logger.warn("Journal writer of {} was interrupted", path);
+                closed = true;
+            } catch (IOException e) {
+                Logger.error(e, "Failed to force {} to disk", path);
+                synchronized (this) {
+                    recordFailure(e);
+                }
+            }
+        }
+    }
+
+    private void write(List<Object> batch) {
+        IOException error = null;
+        var out = new ByteArrayOutputStream();
+        try {
+            for (Object record : batch) {
+                out.write(JacksonJsonRepository.MAPPER.writeValueAsBytes(record));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+        synchronized (this) {
+            long start = -1;
+            try {
+                if (error == null) {
+                    start = channel.position();
+                    writeFully(channel, ByteBuffer.wrap(out.toByteArray()));
+                    dirty = true;
+                    if (options.fsyncPolicy() == JournalOptions.FsyncPolicy.ALWAYS) {
+                        force();
+                    }
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            if (error != null) {
+                Logger.error(error, "Failed to write {} records to {}", batch.size(), path);
+                recordFailure(error);
+                if (start >= 0) {
+                    discardFrom(start);
+                }
+            }
+            written += batch.size();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Keeps a failure to be reported by the next {@link #flush()}, together with the earlier ones not reported yet.
+     */
+    private void recordFailure(IOException e) {
+        if (failure == null) {
+            failure = e;
+        } else if (failure != e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void discardFrom(long start) {
+        try {
+            channel.truncate(start);
+            channel.position(start);
+        } catch (IOException e) {
+            Logger.error(e, "Failed to remove the partial records from {}, stopping the writer", path);
+            failure.addSuppressed(e);
+            stopped = true;
+        }
+    }
+
+    private void checkRunning() throws IOException {
+        if (!thread.isAlive()) {
+            throw new IOException("The journal writer of " + path + " has stopped");
+        }
+    }
+
+    private void force() throws IOException {
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+        lastForce = System.nanoTime();
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package labyrinth.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import labyrinth.solver.SearchMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolveMainTest {
+
+    @TempDir
+    Path directory;
+
+    private void copyResource(String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/" + name)) {
+            Files.copy(in, directory.resolve(name));
+        }
+    }
+
+    @Test
+    void run_reportsEveryLevel() throws IOException, InterruptedException {
+        copyResource("default.json");
+        copyResource("multiball.json");
+        Files.writeString(directory.resolve("broken.json"), "{");
+
+        var writer = new StringWriter();
+        assertEquals(3, new BatchSolveMain(SearchMode.BIDIRECTIONAL, 2).run(directory, writer));
+
+        var mapper = new ObjectMapper();
+        Map<String, LevelReport> reports = new HashMap<>();
+        for (String line : writer.toString().split("\n")) {
+            LevelReport report = mapper.readValue(line, LevelReport.class);
+            reports.put(Path.of(report.file()).getFileName().toString(), report);
+        }
+        LevelReport solved = reports.get("default.json");
+        assertEquals(LevelReport.Status.SOLVED, solved.status());
+        assertNotNull(solved.solvable());
+        assertNull(solved.error());
+        LevelReport unsupported = reports.get("multiball.json");
+        assertEquals(LevelReport.Status.UNSUPPORTED, unsupported.status());
+        assertNull(unsupported.solvable());
+        LevelReport broken = reports.get("broken.json");
+        assertEquals(LevelReport.Status.ERROR, broken.status());
+        assertNull(broken.solvable());
+        assertNotNull(broken.error());
+    }
+}
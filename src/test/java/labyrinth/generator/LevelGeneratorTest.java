@@ -0,0 +1,63 @@
+package labyrinth.generator;
+
+import labyrinth.model.LabyrinthStateLoader;
+import labyrinth.model.LabyrinthStateWriter;
+import labyrinth.solver.BreadthFirstSolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelGeneratorTest {
+
+    private LevelGenerator generator = new LevelGenerator(7, 6, 0.15, 100);
+
+    @Test
+    void generate_hasTargetMoveCount() {
+        var solver = new BreadthFirstSolver();
+        for (long seed = 0; seed < 50; seed++) {
+            var level = generator.generate(seed).orElseThrow();
+            assertEquals(6, solver.solve(level, level.getBlueBall()).getMoveCount());
+        }
+    }
+
+    @Test
+    void generate_isDeterministic() {
+        var first = generator.generate(42).orElseThrow();
+        var second = generator.generate(42).orElseThrow();
+        assertEquals(first.getBlueBall(), second.getBlueBall());
+        assertEquals(first.getGoal(), second.getGoal());
+        assertEquals(first.getWalls().toWalls(), second.getWalls().toWalls());
+    }
+
+    @Test
+    void writeToJson_roundTrip() throws IOException {
+        var level = generator.generate(7).orElseThrow();
+        var out = new ByteArrayOutputStream();
+        LabyrinthStateWriter.writeToJson(level, out);
+        var loaded = LabyrinthStateLoader.loadLevel(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(level.getBoardSize(), loaded.getBoardSize());
+        assertEquals(level.getBlueBall(), loaded.getBlueBall());
+        assertEquals(level.getGoal(), loaded.getGoal());
+        assertEquals(level.getWalls().toWalls(), loaded.getWalls().toWalls());
+    }
+
+    @Test
+    void writeToJson_leavesStreamOpen() throws IOException {
+        var level = generator.generate(7).orElseThrow();
+        var closed = new boolean[1];
+        var out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        LabyrinthStateWriter.writeToJson(level, out);
+        assertFalse(closed[0]);
+        assertTrue(out.size() > 0);
+    }
+
+}
@@ -0,0 +1,199 @@
+package labyrinth.model;
+
+import labyrinth.solver.BreadthFirstSolver;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateTest {
+
+    private Level level = LabyrinthStateLoader.loadLevel("/labyrinth.json");
+
+    @Test
+    void initialState() {
+        var state = new GameState(level);
+        assertEquals(level.getBlueBall(), state.getPosition(GameState.BLUE_BALL));
+        assertEquals(level.getGoal(), state.getPosition(GameState.GOAL_POSITION));
+        assertFalse(state.isGoal());
+    }
+
+    @Test
+    void move_matchesLabyrinthState() {
+        var state = new GameState(level);
+        var observable = new LabyrinthState();
+        for (var direction : new MoveDirection[]{MoveDirection.UP, MoveDirection.RIGHT,
+                MoveDirection.DOWN, MoveDirection.LEFT, MoveDirection.DOWN}) {
+            assertEquals(observable.canMove(direction, observable.getPosition(LabyrinthState.BLUE_BALL)),
+                    state.canMove(direction));
+            state.move(direction);
+            observable.move(direction);
+            assertEquals(observable.getPosition(LabyrinthState.BLUE_BALL), state.getPosition(GameState.BLUE_BALL));
+            assertEquals(observable.isGoal(), state.isGoal());
+        }
+    }
+
+    @Test
+    void moveFrom() {
+        var state = new LabyrinthState();
+        for (var direction : MoveDirection.values()) {
+            int to = state.moveFrom(state.getBallCell(), direction);
+            assertEquals(state.wallPositionInDirection(direction), state.positionOf(to));
+            assertEquals(state.canMove(direction, state.getPosition(LabyrinthState.BLUE_BALL)),
+                    state.canMove(direction, state.getBallCell()));
+        }
+    }
+
+    @Test
+    void copy_isIndependent() {
+        var state = new GameState(level);
+        var copy = state.copy();
+        copy.move(MoveDirection.UP);
+        assertEquals(level.getBlueBall(), state.getPosition(GameState.BLUE_BALL));
+        assertNotEquals(state.getBallCell(), copy.getBallCell());
+        assertSame(state.getLevel(), copy.getLevel());
+    }
+
+    private int[] stepwise(WallGrid walls, int[] balls, MoveDirection direction) {
+        int boardSize = walls.getBoardSize();
+        int[] cells = balls.clone();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < cells.length; i++) {
+                int row = cells[i] / boardSize;
+                int col = cells[i] % boardSize;
+                int next = cells[i] + direction.getRowChange() * boardSize + direction.getColChange();
+                if (walls.canStep(row, col, direction) && Arrays.stream(cells).noneMatch(cell -> cell == next)) {
+                    cells[i] = next;
+                    changed = true;
+                }
+            }
+        }
+        return cells;
+    }
+
+    @Test
+    void move_multipleBalls() {
+        var state = new GameState(LabyrinthStateLoader.loadLevel("/multiball.json"));
+        assertEquals(3, state.getBallCount());
+        assertTrue(state.canMove(MoveDirection.RIGHT));
+        state.move(MoveDirection.RIGHT);
+        assertEquals(new Position(0, 2), state.getBallPosition(0));
+        assertEquals(new Position(0, 3), state.getBallPosition(1));
+        assertEquals(new Position(2, 3), state.getBallPosition(2));
+        state.move(MoveDirection.DOWN);
+        assertEquals(new Position(3, 2), state.getBallPosition(0));
+        assertEquals(new Position(2, 3), state.getBallPosition(1));
+        assertEquals(new Position(3, 3), state.getBallPosition(2));
+        assertTrue(state.isGoal());
+        assertTrue(state.undo());
+        assertEquals(new Position(0, 2), state.getBallPosition(0));
+        assertEquals(new Position(0, 3), state.getBallPosition(1));
+        assertTrue(state.isOccupied(11));
+        assertFalse(state.isOccupied(15));
+        assertTrue(state.redo());
+        assertTrue(state.isGoal());
+    }
+
+    @Test
+    void hint_multipleBalls() {
+        var state = new GameState(LabyrinthStateLoader.loadLevel("/multiball.json"));
+        assertTrue(state.hint().isEmpty());
+        assertFalse(state.isDeadEnd());
+        assertThrows(IllegalArgumentException.class, () -> new BreadthFirstSolver().solve(state));
+    }
+
+    @Test
+    void move_multipleBalls_matchesStepwise() {
+        var random = new Random(17);
+        for (int i = 0; i < 100; i++) {
+            int boardSize = 2 + random.nextInt(8);
+            var grid = RandomBoards.walls(random, boardSize, 0.2);
+            Set<Position> balls = new LinkedHashSet<>();
+            int ballCount = 1 + random.nextInt(boardSize);
+            while (balls.size() < ballCount) {
+                balls.add(Position.of(random.nextInt(boardSize), random.nextInt(boardSize)));
+            }
+            var state = new GameState(new Level(boardSize, grid, List.copyOf(balls), Position.of(0, 0)));
+            for (int move = 0; move < 20; move++) {
+                var direction = MoveDirection.values()[random.nextInt(4)];
+                int[] cells = new int[ballCount];
+                Arrays.setAll(cells, state::getBallCell);
+                int[] expected = stepwise(grid, cells, direction);
+                assertEquals(!Arrays.equals(cells, expected), state.canMove(direction));
+                state.move(direction);
+                Arrays.setAll(cells, state::getBallCell);
+                assertArrayEquals(expected, cells);
+            }
+        }
+    }
+
+    @Test
+    void undo_multipleBalls_restoresEveryBall() {
+        var random = new Random(19);
+        for (int i = 0; i < 100; i++) {
+            int boardSize = 2 + random.nextInt(8);
+            var grid = RandomBoards.walls(random, boardSize, 0.2);
+            Set<Position> balls = new LinkedHashSet<>();
+            int ballCount = 2 + random.nextInt(boardSize);
+            while (balls.size() < ballCount) {
+                balls.add(Position.of(random.nextInt(boardSize), random.nextInt(boardSize)));
+            }
+            var state = new GameState(new Level(boardSize, grid, List.copyOf(balls), Position.of(0, 0)));
+            List<int[]> states = new ArrayList<>();
+            for (int move = 0; move < 20; move++) {
+                int[] cells = new int[ballCount];
+                Arrays.setAll(cells, state::getBallCell);
+                var direction = MoveDirection.values()[random.nextInt(4)];
+                if (state.canMove(direction)) {
+                    states.add(cells);
+                    state.move(direction);
+                }
+            }
+            for (int move = states.size() - 1; move >= 0; move--) {
+                assertTrue(state.undo());
+                int[] cells = new int[ballCount];
+                Arrays.setAll(cells, state::getBallCell);
+                assertArrayEquals(states.get(move), cells);
+                for (int cell : cells) {
+                    assertTrue(state.isOccupied(cell));
+                }
+            }
+            assertFalse(state.undo());
+        }
+    }
+
+    @Test
+    void writer_roundTripsBalls() throws IOException {
+        var level = LabyrinthStateLoader.loadLevel("/multiball.json");
+        var out = new ByteArrayOutputStream();
+        LabyrinthStateWriter.writeToJson(level, out);
+        var copy = LabyrinthStateLoader.loadLevel(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(level.getBalls(), copy.getBalls());
+        assertEquals(level.getBlueBall(), copy.getBlueBall());
+    }
+
+    @Test
+    void level_shouldThrowIllegalArgumentException() {
+        var walls = WallGrid.of(3, List.of());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Level(3, walls, new Position(3, 0), new Position(0, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Level(4, walls, new Position(0, 0), new Position(0, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Level(3, walls, List.of(), new Position(0, 0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Level(3, walls, List.of(new Position(1, 1), new Position(1, 1)), new Position(0, 0)));
+    }
+
+}
@@ -0,0 +1,91 @@
+package labyrinth.model;
+
+import labyrinth.solver.BreadthFirstSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoalDistanceMapTest {
+
+    @Test
+    void distance_matchesSolver() {
+        var random = new Random(11);
+        var solver = new BreadthFirstSolver();
+        for (int i = 0; i < 50; i++) {
+            int boardSize = 2 + random.nextInt(10);
+            var slides = RandomBoards.slides(random, boardSize, 0.3);
+            int goal = random.nextInt(boardSize * boardSize);
+            var map = GoalDistanceMap.of(slides, goal);
+            for (int cell = 0; cell < boardSize * boardSize; cell++) {
+                assertEquals(solver.solve(slides, cell, goal).getMoveCount(), map.distance(cell));
+            }
+        }
+    }
+
+    @Test
+    void isDeadEnd_matchesSolver() {
+        var random = new Random(7);
+        var solver = new BreadthFirstSolver();
+        for (int i = 0; i < 50; i++) {
+            int boardSize = 2 + random.nextInt(10);
+            var slides = RandomBoards.slides(random, boardSize, 0.3);
+            int goal = random.nextInt(boardSize * boardSize);
+            var map = GoalDistanceMap.of(slides, goal);
+            int deadEnds = 0;
+            for (int cell = 0; cell < boardSize * boardSize; cell++) {
+                boolean deadEnd = !solver.solve(slides, cell, goal).isSolvable();
+                assertEquals(deadEnd, map.isDeadEnd(cell));
+                deadEnds += deadEnd ? 1 : 0;
+            }
+            assertEquals(deadEnds, map.getDeadEndCount());
+        }
+    }
+
+    @Test
+    void isDeadEnd_states() {
+        var deadEnd = new LabyrinthState("/deadendstate.json");
+        assertTrue(deadEnd.isDeadEnd(deadEnd.getPosition(LabyrinthState.BLUE_BALL)));
+        assertTrue(deadEnd.getGameState().isDeadEnd());
+
+        var state = new LabyrinthState();
+        assertFalse(state.isDeadEnd(state.getPosition(LabyrinthState.BLUE_BALL)));
+        assertFalse(state.isDeadEnd(state.getPosition(LabyrinthState.GOAL_POSITION)));
+    }
+
+    @Test
+    void hint_reachesGoal() {
+        var random = new Random(13);
+        for (int i = 0; i < 50; i++) {
+            int boardSize = 2 + random.nextInt(10);
+            var slides = RandomBoards.slides(random, boardSize, 0.3);
+            int goal = random.nextInt(boardSize * boardSize);
+            var map = GoalDistanceMap.of(slides, goal);
+            for (int cell = 0; cell < boardSize * boardSize; cell++) {
+                int current = cell;
+                for (int moves = map.distance(cell); moves > 0; moves--) {
+                    current = slides.stop(current, map.hint(current).orElseThrow());
+                }
+                assertEquals(map.distance(cell) >= 0 ? goal : cell, current);
+                assertEquals(Optional.empty(), map.hint(current));
+            }
+        }
+    }
+
+    @Test
+    void hint_state() {
+        var state = new LabyrinthState();
+        var gameState = state.getGameState();
+        int expected = new BreadthFirstSolver().solve(state).getMoveCount();
+        int moves = 0;
+        while (!gameState.isGoal()) {
+            gameState.move(gameState.hint().orElseThrow());
+            moves++;
+        }
+        assertEquals(expected, moves);
+        assertTrue(state.hint(state.getPosition(LabyrinthState.GOAL_POSITION)).isEmpty());
+    }
+
+}
@@ -0,0 +1,50 @@
+package labyrinth.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LabyrinthStateLoaderTest {
+
+    private Level load(String json) throws IOException {
+        return LabyrinthStateLoader.loadLevel(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void loadLevel_fieldOrder() throws IOException {
+        var wallsFirst = load("""
+                {"walls": [{"position": {"row": 0, "col": 1}, "direction": "RIGHT"}],
+                 "blueBall": {"row": 1, "col": 1}, "goalPosition": {"col": 2, "row": 0}, "boardSize": 3}""");
+        var sizeFirst = load("""
+                {"boardSize": 3, "goalPosition": {"row": 0, "col": 2}, "extra": [1, {"a": 2}],
+                 "blueBall": {"row": 1, "col": 1},
+                 "walls": [{"direction": "RIGHT", "position": {"row": 0, "col": 1}}]}""");
+        assertEquals(wallsFirst.getWalls().toWalls(), sizeFirst.getWalls().toWalls());
+        assertEquals(new Position(0, 2), wallsFirst.getGoal());
+        assertEquals(new Position(1, 1), sizeFirst.getBlueBall());
+    }
+
+    @Test
+    void loadLevel_shouldThrowLevelFormatException() {
+        assertThrows(LevelFormatException.class, () -> load("{\"boardSize\": 3,"));
+        assertThrows(LevelFormatException.class, () -> load("[]"));
+        assertThrows(LevelFormatException.class, () -> load("""
+                {"walls": [], "blueBall": {"row": 1, "col": 1}, "goalPosition": {"row": 0, "col": 2}}"""));
+        assertThrows(LevelFormatException.class, () -> load("""
+                {"boardSize": 3, "walls": [{"position": {"row": 0, "col": 1}, "direction": "UP"}],
+                 "blueBall": {"row": 1, "col": 1}, "goalPosition": {"row": 0, "col": 2}}"""));
+        assertThrows(LevelFormatException.class, () -> load("""
+                {"boardSize": 3, "walls": [], "blueBall": {"row": 1}, "goalPosition": {"row": 0, "col": 2}}"""));
+    }
+
+    @Test
+    void loadLevel_missingResource() {
+        assertThrows(UncheckedIOException.class, () -> LabyrinthStateLoader.loadLevel("/missing.json"));
+    }
+
+}
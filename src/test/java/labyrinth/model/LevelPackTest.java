@@ -0,0 +1,90 @@
+package labyrinth.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelPackTest {
+
+    @TempDir
+    Path directory;
+
+    private Level randomLevel(Random random) {
+        int boardSize = 1 + random.nextInt(40);
+        return new Level(boardSize, RandomBoards.walls(random, boardSize, 0.1),
+                Position.of(random.nextInt(boardSize), random.nextInt(boardSize)),
+                Position.of(random.nextInt(boardSize), random.nextInt(boardSize)));
+    }
+
+    private void assertLevelEquals(Level expected, Level actual) {
+        assertEquals(expected.getBoardSize(), actual.getBoardSize());
+        assertEquals(expected.getWalls().toWalls(), actual.getWalls().toWalls());
+        assertEquals(expected.getBalls(), actual.getBalls());
+        assertEquals(expected.getGoal(), actual.getGoal());
+    }
+
+    @Test
+    void writeAndGet() throws IOException {
+        var random = new Random(5);
+        List<Level> levels = new ArrayList<>();
+        levels.add(LabyrinthStateLoader.loadLevel("/labyrinth.json"));
+        levels.add(LabyrinthStateLoader.loadLevel("/multiball.json"));
+        for (int i = 0; i < 50; i++) {
+            levels.add(randomLevel(random));
+        }
+        var file = directory.resolve("levels.pack");
+        try (var writer = new LevelPack.Writer(file, levels.size())) {
+            for (var level : levels) {
+                writer.add(level);
+            }
+        }
+        var pack = LevelPack.open(file);
+        assertEquals(levels.size(), pack.size());
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            assertLevelEquals(levels.get(i), pack.getLevel(i));
+        }
+        assertEquals(levels.get(0).getBlueBall(), pack.get(0).getPosition(LabyrinthState.BLUE_BALL));
+        assertThrows(IndexOutOfBoundsException.class, () -> pack.getLevel(levels.size()));
+    }
+
+    @Test
+    void open_shouldThrowLevelFormatException() throws IOException {
+        var file = directory.resolve("levels.json");
+        Files.writeString(file, "{\"boardSize\": 7}");
+        assertThrows(LevelFormatException.class, () -> LevelPack.open(file));
+    }
+
+    @Test
+    void getLevel_corruptSizes() throws IOException {
+        var file = directory.resolve("levels.pack");
+        try (var writer = new LevelPack.Writer(file, 1)) {
+            writer.add(LabyrinthStateLoader.loadLevel("/labyrinth.json"));
+        }
+        int record = 3 * Integer.BYTES + 2 * Long.BYTES;
+        int[][] corruptions = {{record, 1 << 20}, {record, -7}, {record + 2 * Integer.BYTES, Integer.MAX_VALUE}};
+        for (int[] corruption : corruptions) {
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).putInt(corruption[0], corruption[1]);
+            var corrupt = directory.resolve("corrupt.pack");
+            Files.write(corrupt, bytes);
+            assertThrows(LevelFormatException.class, () -> LevelPack.open(corrupt).getLevel(0));
+        }
+    }
+
+    @Test
+    void close_shouldThrowIllegalStateException() throws IOException {
+        var writer = new LevelPack.Writer(directory.resolve("levels.pack"), 2);
+        writer.add(LabyrinthStateLoader.loadLevel("/labyrinth.json"));
+        assertThrows(IllegalStateException.class, writer::close);
+    }
+
+}
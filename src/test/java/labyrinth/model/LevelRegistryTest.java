@@ -0,0 +1,71 @@
+package labyrinth.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void getResource_returnsTemplate() {
+        var registry = new LevelRegistry(2);
+        var level = registry.getResource("/labyrinth.json");
+        assertSame(level, registry.getResource("/labyrinth.json"));
+        assertNotSame(level, registry.getResource("/goalstate.json"));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void getResource_evictsLeastRecentlyUsed() {
+        var registry = new LevelRegistry(2);
+        var level = registry.getResource("/labyrinth.json");
+        registry.getResource("/goalstate.json");
+        registry.getResource("/labyrinth.json");
+        var other = registry.getResource("/nongoalstate.json");
+        assertEquals(2, registry.size());
+        assertSame(level, registry.getResource("/labyrinth.json"));
+        assertSame(other, registry.getResource("/nongoalstate.json"));
+    }
+
+    @Test
+    void getFile_reloadsChangedContent() throws IOException {
+        var registry = new LevelRegistry(4);
+        var file = dir.resolve("level.json");
+        LabyrinthStateWriter.writeToFile(new Level(3, WallGrid.of(3, List.of()),
+                Position.of(0, 0), Position.of(2, 2)), file);
+        var level = registry.getFile(file);
+        assertSame(level, registry.getFile(file));
+        LabyrinthStateWriter.writeToFile(new Level(3, WallGrid.of(3, List.of()),
+                Position.of(1, 1), Position.of(2, 2)), file);
+        var changed = registry.getFile(file);
+        assertNotSame(level, changed);
+        assertEquals(Position.of(1, 1), changed.getBlueBall());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void find() throws IOException {
+        var registry = new LevelRegistry(4);
+        var resource = registry.loadResource("/labyrinth.json");
+        assertSame(resource.level(), registry.find(resource.id()).orElseThrow());
+
+        var file = dir.resolve("level.json");
+        LabyrinthStateWriter.writeToFile(new Level(3, WallGrid.of(3, List.of()),
+                Position.of(0, 0), Position.of(2, 2)), file);
+        var entry = registry.loadFile(file);
+        assertTrue(entry.id().isFile());
+        assertSame(entry.level(), registry.find(entry.id()).orElseThrow());
+        LabyrinthStateWriter.writeToFile(new Level(3, WallGrid.of(3, List.of()),
+                Position.of(1, 1), Position.of(2, 2)), file);
+        assertTrue(registry.find(entry.id()).isEmpty());
+        assertTrue(registry.find(new LevelId("/missing.json", 0)).isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+package labyrinth.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveHistoryTest {
+
+    @Test
+    void recordAndUndo() {
+        var history = new MoveHistory();
+        assertFalse(history.canUndo());
+        for (int i = 0; i < 1000; i++) {
+            history.record(i, MoveDirection.values()[i % 4]);
+        }
+        assertEquals(1000, history.size());
+        for (int i = 999; i >= 0; i--) {
+            assertEquals(MoveDirection.values()[i % 4], history.getMove(i));
+            assertEquals(i, history.undo());
+        }
+        assertFalse(history.canUndo());
+        assertTrue(history.canRedo());
+        assertEquals(MoveDirection.UP, history.redo());
+        assertEquals(MoveDirection.RIGHT, history.redo());
+        assertEquals(2, history.getPosition());
+    }
+
+    @Test
+    void record_discardsRedo() {
+        var history = new MoveHistory();
+        history.record(0, MoveDirection.LEFT);
+        history.record(1, MoveDirection.DOWN);
+        history.undo();
+        history.record(1, MoveDirection.UP);
+        assertFalse(history.canRedo());
+        assertEquals(2, history.size());
+        assertEquals(MoveDirection.UP, history.getMove(1));
+        assertThrows(IllegalStateException.class, history::redo);
+        assertThrows(IndexOutOfBoundsException.class, () -> history.getMove(2));
+    }
+
+    @Test
+    void undoRedo_labyrinthState() {
+        var state = new LabyrinthState();
+        var start = state.getPosition(LabyrinthState.BLUE_BALL);
+        state.move(MoveDirection.UP);
+        var afterUp = state.getPosition(LabyrinthState.BLUE_BALL);
+        state.move(MoveDirection.RIGHT);
+        var afterRight = state.getPosition(LabyrinthState.BLUE_BALL);
+
+        assertTrue(state.undo());
+        assertEquals(afterUp, state.getPosition(LabyrinthState.BLUE_BALL));
+        assertTrue(state.undo());
+        assertEquals(start, state.getPosition(LabyrinthState.BLUE_BALL));
+        assertFalse(state.undo());
+        assertTrue(state.redo());
+        assertTrue(state.redo());
+        assertEquals(afterRight, state.getPosition(LabyrinthState.BLUE_BALL));
+        assertFalse(state.redo());
+    }
+
+}
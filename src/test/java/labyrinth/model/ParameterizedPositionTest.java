@@ -7,6 +7,7 @@ import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class ParameterizedPositionTest {
 
@@ -57,6 +58,14 @@ class ParameterizedPositionTest {
         assertPosition(position.row(), position.col() - 1, position.getLeft());
     }
 
+    @ParameterizedTest
+    @MethodSource("positionProvider")
+    void of(Position position) {
+        assertSame(Position.of(position.row(), position.col()), Position.of(position.row(), position.col()));
+        assertEquals(position, Position.of(position.row(), position.col()));
+        assertSame(Position.of(position.row() + 1, position.col()), position.getDown());
+    }
+
     @ParameterizedTest
     @MethodSource("positionProvider")
     void testToString(Position position) {
@@ -0,0 +1,45 @@
+package labyrinth.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random boards for the tests that compare an implementation against a simpler one.
+ */
+public final class RandomBoards {
+
+    private RandomBoards() {
+    }
+
+    /**
+     * {@return a board whose squares each have a wall on their right and bottom side with the specified probability}
+     * @param random the source of randomness
+     * @param boardSize the size of the board
+     * @param density the probability of each wall
+     */
+    public static WallGrid walls(Random random, int boardSize, double density) {
+        List<Wall> walls = new ArrayList<>();
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                if (random.nextDouble() < density) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.RIGHT));
+                }
+                if (random.nextDouble() < density) {
+                    walls.add(new Wall(Position.of(row, col), Wall.Direction.BOTTOM));
+                }
+            }
+        }
+        return WallGrid.of(boardSize, walls);
+    }
+
+    /**
+     * {@return the slide table of a random board}
+     * @param random the source of randomness
+     * @param boardSize the size of the board
+     * @param density the probability of each wall
+     */
+    public static SlideTable slides(Random random, int boardSize, double density) {
+        return SlideTable.of(walls(random, boardSize, density));
+    }
+}
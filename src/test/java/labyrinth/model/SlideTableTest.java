@@ -0,0 +1,45 @@
+package labyrinth.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlideTableTest {
+
+    private LabyrinthState state = new LabyrinthState();
+
+    private int walk(WallGrid walls, int row, int col, MoveDirection moveDirection) {
+        while (walls.canStep(row, col, moveDirection)) {
+            row += moveDirection.getRowChange();
+            col += moveDirection.getColChange();
+        }
+        return row * walls.getBoardSize() + col;
+    }
+
+    @Test
+    void stop_matchesStepwiseSlide() {
+        var walls = state.getWalls();
+        var slides = SlideTable.of(walls);
+        for (int row = 0; row < state.getBoardSize(); row++) {
+            for (int col = 0; col < state.getBoardSize(); col++) {
+                for (var direction : MoveDirection.values()) {
+                    assertEquals(walk(walls, row, col, direction), slides.stop(row, col, direction));
+                    assertEquals(slides.stop(row, col, direction),
+                            slides.stop(row * state.getBoardSize() + col, direction));
+                }
+            }
+        }
+    }
+
+    @Test
+    void stop_emptyBoard() {
+        var slides = SlideTable.of(WallGrid.of(4, List.of()));
+        assertEquals(3, slides.stop(0, 0, MoveDirection.RIGHT));
+        assertEquals(12, slides.stop(0, 0, MoveDirection.DOWN));
+        assertEquals(0, slides.stop(0, 0, MoveDirection.UP));
+        assertEquals(4, slides.stop(5, MoveDirection.LEFT));
+    }
+
+}
@@ -0,0 +1,60 @@
+package labyrinth.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WallGridTest {
+
+    private WallGrid grid = WallGrid.of(3, List.of(
+            new Wall(new Position(0, 0), Wall.Direction.RIGHT),
+            new Wall(new Position(1, 1), Wall.Direction.TOP),
+            new Wall(new Position(2, 2), Wall.Direction.BOTTOM)));
+
+    @Test
+    void of_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> WallGrid.of(3, List.of(new Wall(new Position(3, 0), Wall.Direction.TOP))));
+        assertThrows(IllegalArgumentException.class,
+                () -> WallGrid.of(3, List.of(new Wall(new Position(0, -1), Wall.Direction.RIGHT))));
+    }
+
+    @Test
+    void hasWall_sharedEdge() {
+        assertTrue(grid.hasWall(0, 0, Wall.Direction.RIGHT));
+        assertTrue(grid.hasWall(0, 1, Wall.Direction.LEFT));
+        assertTrue(grid.hasWall(1, 1, Wall.Direction.TOP));
+        assertTrue(grid.hasWall(0, 1, Wall.Direction.BOTTOM));
+        assertTrue(grid.hasWall(2, 2, Wall.Direction.BOTTOM));
+        assertFalse(grid.hasWall(1, 0, Wall.Direction.RIGHT));
+    }
+
+    @Test
+    void canStep() {
+        assertFalse(grid.canStep(0, 0, MoveDirection.RIGHT));
+        assertFalse(grid.canStep(0, 1, MoveDirection.LEFT));
+        assertFalse(grid.canStep(0, 1, MoveDirection.DOWN));
+        assertFalse(grid.canStep(1, 1, MoveDirection.UP));
+        assertFalse(grid.canStep(0, 0, MoveDirection.UP));
+        assertFalse(grid.canStep(2, 2, MoveDirection.DOWN));
+        assertTrue(grid.canStep(1, 0, MoveDirection.RIGHT));
+        assertTrue(grid.canStep(1, 1, MoveDirection.DOWN));
+    }
+
+    @Test
+    void wallMask() {
+        int mask = grid.wallMask(0, 1);
+        assertEquals(EnumSet.of(Wall.Direction.LEFT, Wall.Direction.BOTTOM), WallGrid.toDirections(mask));
+        assertEquals(0, grid.wallMask(1, 0));
+    }
+
+    @Test
+    void toWalls() {
+        assertEquals(3, grid.toWalls().size());
+        assertTrue(grid.toWalls().contains(new Wall(new Position(0, 1), Wall.Direction.BOTTOM)));
+    }
+
+}
@@ -0,0 +1,172 @@
+package labyrinth.results;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameResultRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(int steps) {
+        return GameResult.builder()
+                .player("player")
+                .solved(true)
+                .steps(steps)
+                .duration(Duration.ofSeconds(steps))
+                .build();
+    }
+
+    @Test
+    void addOne_assignsIds() {
+        var repository = new GameResultRepository();
+        var first = result(10);
+        var second = result(20);
+        assertTrue(repository.addOne(first));
+        assertTrue(repository.addOne(second));
+        assertEquals(1L, first.getId());
+        assertEquals(2L, second.getId());
+        assertFalse(repository.addOne(first));
+    }
+
+    @Test
+    void getAll_sharesSnapshotUntilChange() {
+        var repository = new GameResultRepository();
+        repository.addOne(result(10));
+        var snapshot = repository.getAll();
+        assertSame(snapshot, repository.getAll());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(result(20)));
+
+        repository.addOne(result(20));
+        assertEquals(1, snapshot.size());
+        assertEquals(2, repository.getAll().size());
+    }
+
+    @Test
+    void open_restoresSequence() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = new GameResultRepository();
+        repository.open(file);
+        repository.addOne(result(10));
+        repository.addOne(result(20));
+        repository.clear();
+        repository.close();
+
+        var reopened = new GameResultRepository();
+        reopened.open(file);
+        var next = result(30);
+        reopened.addOne(next);
+        reopened.close();
+        assertEquals(3L, next.getId());
+    }
+
+    @Test
+    void openInBackground_opensOnce() throws Exception {
+        var file = directory.resolve("results.json").toFile();
+        var repository = new GameResultRepository();
+        var opening = repository.openInBackground(file);
+        var stored = result(10);
+        opening.thenRun(() -> repository.addOne(stored)).get();
+
+        assertSame(opening, repository.openInBackground(file));
+        assertTrue(repository.isOpen());
+        assertEquals(1L, stored.getId());
+        repository.close();
+    }
+
+    @Test
+    void open_ignoresTornSequence() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = new GameResultRepository();
+        repository.open(file);
+        repository.addOne(result(10));
+        repository.addOne(result(20));
+        repository.close();
+        Files.writeString(Path.of(file.getPath() + GameResultRepository.SEQUENCE_SUFFIX), "");
+
+        var reopened = new GameResultRepository();
+        reopened.open(file);
+        var next = result(30);
+        reopened.addOne(next);
+        reopened.close();
+        assertEquals(3L, next.getId());
+    }
+
+    @Test
+    void findBest_followsChanges() {
+        var repository = new GameResultRepository();
+        var slow = result(30);
+        var fast = result(10);
+        var unsolved = result(5);
+        unsolved.setSolved(false);
+        repository.addMany(List.of(slow, fast, unsolved));
+        assertEquals(List.of(fast, slow), repository.findBest(10));
+        assertEquals(2, repository.rank(slow));
+
+        var slower = result(40);
+        slower.setId(fast.getId());
+        slower.setCreated(fast.getCreated());
+        repository.replaceOne(slower);
+        assertEquals(List.of(slow, slower), repository.findBest(10));
+
+        repository.clear();
+        assertEquals(List.of(), repository.findBest(10));
+    }
+
+    @Test
+    void replaceOne_mutatedResult() {
+        var repository = new GameResultRepository();
+        var first = result(10);
+        var second = result(20);
+        repository.addMany(List.of(first, second));
+
+        first.setDuration(Duration.ofSeconds(30));
+        first.setSteps(30);
+        repository.replaceOne(first);
+        assertEquals(List.of(second, first), repository.findBest(10));
+        assertEquals(List.of(second, first), repository.findWithStepsAtMost(30));
+
+        repository.findBest(10).get(0).setDuration(Duration.ofSeconds(1));
+        assertEquals(List.of(second, first), repository.findBest(10));
+        assertEquals(Duration.ofSeconds(20), repository.findBest(1).get(0).getDuration());
+    }
+
+    @Test
+    void queries() {
+        var repository = new GameResultRepository();
+        var now = ZonedDateTime.now();
+        var alice = result(10);
+        alice.setPlayer("alice");
+        alice.setCreated(now.minusDays(2));
+        var bob = result(20);
+        bob.setPlayer("bob");
+        bob.setCreated(now.minusHours(1));
+        var aliceAgain = result(5);
+        aliceAgain.setPlayer("alice");
+        aliceAgain.setSolved(false);
+        aliceAgain.setCreated(now.minusMinutes(1));
+        repository.addMany(List.of(alice, bob, aliceAgain));
+
+        assertEquals(List.of(alice, aliceAgain), repository.findByPlayer("alice"));
+        assertEquals(List.of(alice), repository.findBestOfPlayer("alice", 5));
+        assertEquals(List.of(), repository.findByPlayer("carol"));
+        var since = now.minusDays(1).toInstant();
+        assertEquals(List.of(bob, aliceAgain), repository.findCreatedBetween(since, now.toInstant()));
+        assertEquals(List.of(aliceAgain, alice), repository.findWithStepsAtMost(10));
+
+        repository.replaceOne(GameResult.builder().id(alice.getId()).player("carol").steps(30)
+                .created(now).build());
+        assertEquals(List.of(aliceAgain), repository.findByPlayer("alice"));
+        assertEquals(List.of(aliceAgain), repository.findWithStepsAtMost(10));
+        assertEquals(1, repository.findByPlayer("carol").size());
+    }
+}
@@ -0,0 +1,77 @@
+package labyrinth.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static final ZonedDateTime EPOCH = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static GameResult result(long id, int seconds, int minutes) {
+        return GameResult.builder()
+                .id(id)
+                .solved(true)
+                .duration(Duration.ofSeconds(seconds))
+                .created(EPOCH.plusMinutes(minutes))
+                .build();
+    }
+
+    @Test
+    void top() {
+        var leaderboard = new Leaderboard();
+        var slow = result(1, 30, 0);
+        var fastOld = result(2, 10, 0);
+        var fastNew = result(3, 10, 5);
+        leaderboard.add(slow);
+        leaderboard.add(fastOld);
+        leaderboard.add(fastNew);
+        assertEquals(List.of(fastNew, fastOld, slow), leaderboard.top(10));
+        assertEquals(List.of(fastNew), leaderboard.top(1));
+        assertEquals(List.of(), new Leaderboard().top(5));
+    }
+
+    @Test
+    void rank() {
+        var leaderboard = new Leaderboard();
+        leaderboard.add(result(1, 30, 0));
+        leaderboard.add(result(2, 10, 0));
+        assertEquals(1, leaderboard.rank(result(2, 10, 0)));
+        assertEquals(2, leaderboard.rank(result(1, 30, 0)));
+        assertEquals(2, leaderboard.rank(result(3, 20, 0)));
+        assertEquals(3, leaderboard.rank(result(4, 40, 0)));
+    }
+
+    @Test
+    void randomOperations() {
+        var random = new Random(7);
+        var leaderboard = new Leaderboard();
+        List<GameResult> expected = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            if (!expected.isEmpty() && random.nextInt(4) == 0) {
+                var removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(leaderboard.remove(removed));
+                assertFalse(leaderboard.remove(removed));
+            }
+            var added = result(id, random.nextInt(100), random.nextInt(100));
+            leaderboard.add(added);
+            expected.add(added);
+        }
+        expected.sort(Leaderboard.ORDER);
+        assertEquals(expected.size(), leaderboard.size());
+        assertEquals(expected, leaderboard.top(Integer.MAX_VALUE));
+        for (int i = 0; i < expected.size(); i += 37) {
+            assertEquals(i + 1, leaderboard.rank(expected.get(i)));
+        }
+        leaderboard.clear();
+        assertEquals(0, leaderboard.size());
+        assertEquals(1, leaderboard.rank(expected.get(0)));
+    }
+}
@@ -0,0 +1,117 @@
+package labyrinth.results;
+
+import labyrinth.model.LevelId;
+import labyrinth.model.MoveDirection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private Replay randomReplay(Random random, long gameId, int size) {
+        var recorder = new ReplayRecorder();
+        long millis = 0;
+        for (int i = 0; i < size; i++) {
+            millis += random.nextInt(5000);
+            recorder.record(i, MoveDirection.values()[random.nextInt(4)], millis);
+        }
+        return recorder.toReplay(gameId, size);
+    }
+
+    private void assertReplayEquals(Replay expected, Replay actual) {
+        assertEquals(expected.gameId(), actual.gameId());
+        assertArrayEquals(expected.moves(), actual.moves());
+        assertArrayEquals(expected.millis(), actual.millis());
+    }
+
+    @Test
+    void appendAndRead() throws IOException {
+        var archive = new ReplayArchive(directory.resolve("replays.bin"));
+        var random = new Random(3);
+        List<Replay> expected = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            expected.add(randomReplay(random, id, random.nextInt(30)));
+        }
+        expected.add(randomReplay(random, 101, 200_000));
+        for (var replay : expected) {
+            archive.append(replay);
+        }
+
+        List<Replay> actual = new ArrayList<>();
+        archive.forEach(actual::add);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertReplayEquals(expected.get(i), actual.get(i));
+        }
+        assertReplayEquals(expected.get(41), archive.find(42).orElseThrow());
+        assertTrue(archive.find(1000).isEmpty());
+    }
+
+    @Test
+    void forEach_truncatedLength() throws IOException {
+        var file = directory.resolve("replays.bin");
+        var archive = new ReplayArchive(file);
+        archive.append(randomReplay(new Random(5), 1, 100));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, 1));
+
+        assertThrows(EOFException.class, () -> archive.forEach(replay -> { }));
+    }
+
+    @Test
+    void forEach_corruptMoveCount() throws IOException {
+        var file = directory.resolve("replays.bin");
+        // a payload of three bytes: game id 1, then 1000 moves as a two-byte varint
+        Files.write(file, new byte[]{3, 1, (byte) 0xE8, 0x07});
+
+        var e = assertThrows(IOException.class, () -> new ReplayArchive(file).forEach(replay -> { }));
+        assertFalse(e instanceof EOFException);
+    }
+
+    @Test
+    void forEach_missingFile() throws IOException {
+        var archive = new ReplayArchive(directory.resolve("missing.bin"));
+        archive.forEach(replay -> fail());
+    }
+
+    @Test
+    void appendAndRead_level() throws IOException {
+        var archive = new ReplayArchive(directory.resolve("replays.bin"));
+        var level = new LevelId("file:///tmp/levels/\u00e9t\u00e9.json", -5L);
+        var recorder = new ReplayRecorder();
+        recorder.record(0, MoveDirection.LEFT, 10);
+        archive.append(recorder.toReplay(1, 1));
+        archive.append(recorder.toReplay(2, 1, level));
+
+        assertNull(archive.find(1).orElseThrow().level());
+        var replay = archive.find(2).orElseThrow();
+        assertEquals(level, replay.level());
+        assertArrayEquals(new MoveDirection[]{MoveDirection.LEFT}, replay.moves());
+    }
+
+    @Test
+    void recorder_overwritesUndoneMoves() {
+        var recorder = new ReplayRecorder();
+        recorder.record(0, MoveDirection.UP, 100);
+        recorder.record(1, MoveDirection.LEFT, 200);
+        recorder.record(1, MoveDirection.DOWN, 300);
+        var replay = recorder.toReplay(7, 2);
+        assertArrayEquals(new MoveDirection[]{MoveDirection.UP, MoveDirection.DOWN}, replay.moves());
+        assertArrayEquals(new long[]{100, 300}, replay.millis());
+        assertThrows(IndexOutOfBoundsException.class, () -> recorder.toReplay(7, 3));
+    }
+
+}
@@ -0,0 +1,113 @@
+package labyrinth.results;
+
+import labyrinth.model.LabyrinthStateLoader;
+import labyrinth.model.Level;
+import labyrinth.model.LevelId;
+import labyrinth.model.MoveDirection;
+import labyrinth.solver.BreadthFirstSolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayVerifierTest {
+
+    @TempDir
+    Path directory;
+
+    private Level level = LabyrinthStateLoader.loadLevel("/labyrinth.json");
+
+    private ReplayVerifier verifier = new ReplayVerifier(level, 4);
+
+    private Replay solvedReplay(long id) {
+        var moves = new BreadthFirstSolver().solve(level, level.getBlueBall()).moves();
+        var millis = new long[moves.size()];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = 1000L * (i + 1);
+        }
+        return new Replay(id, moves.toArray(MoveDirection[]::new), millis);
+    }
+
+    private GameResult result(long id, boolean solved, int steps, Duration duration) {
+        return GameResult.builder().id(id).player("player").solved(solved).steps(steps).duration(duration).build();
+    }
+
+    @Test
+    void verify() {
+        var replay = solvedReplay(1);
+        int steps = replay.size();
+        var duration = Duration.ofSeconds(steps + 1);
+        assertEquals(ReplayVerifier.Verdict.VALID, verifier.verify(result(1, true, steps, duration), replay));
+        assertEquals(ReplayVerifier.Verdict.SOLVED_MISMATCH, verifier.verify(result(1, false, steps, duration), replay));
+        assertEquals(ReplayVerifier.Verdict.STEPS_MISMATCH, verifier.verify(result(1, true, steps - 1, duration), replay));
+        assertEquals(ReplayVerifier.Verdict.DURATION_MISMATCH,
+                verifier.verify(result(1, true, steps, Duration.ofSeconds(1)), replay));
+        var stuck = new Replay(1, new MoveDirection[]{MoveDirection.UP, MoveDirection.UP}, new long[]{1, 2});
+        assertEquals(ReplayVerifier.Verdict.ILLEGAL_MOVE, verifier.verify(result(1, false, 2, duration), stuck));
+    }
+
+    @Test
+    void verify_multipleBalls() {
+        var multiball = new ReplayVerifier(LabyrinthStateLoader.loadLevel("/multiball.json"), 1);
+        var replay = new Replay(1, new MoveDirection[]{MoveDirection.RIGHT, MoveDirection.DOWN}, new long[]{1, 2});
+        assertEquals(ReplayVerifier.Verdict.VALID,
+                multiball.verify(result(1, true, 2, Duration.ofSeconds(1)), replay));
+    }
+
+    @Test
+    void verifyAll() throws IOException, InterruptedException {
+        var archive = new ReplayArchive(directory.resolve("replays.bin"));
+        List<GameResult> results = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            var replay = solvedReplay(id);
+            archive.append(replay);
+            boolean forged = id % 1000 == 0;
+            results.add(result(id, true, forged ? 1 : replay.size(), Duration.ofMinutes(1)));
+        }
+        results.add(result(10_001, true, 1, Duration.ofSeconds(1)));
+
+        var report = verifier.verifyAll(results, archive);
+        assertEquals(9_990, report.valid());
+        assertEquals(11, report.invalid().size());
+        assertEquals(ReplayVerifier.Verdict.STEPS_MISMATCH, report.invalid().get(5000L));
+        assertEquals(ReplayVerifier.Verdict.MISSING_REPLAY, report.invalid().get(10_001L));
+    }
+
+    @Test
+    void verify_levelOfReplay() {
+        var id = new LevelId("/labyrinth.json", 42);
+        var other = new LevelId("/missing.json", 7);
+        var withLevels = new ReplayVerifier(LabyrinthStateLoader.loadLevel("/goalstate.json"),
+                levelId -> levelId.equals(id) ? Optional.of(level) : Optional.empty(), 1);
+        var solved = solvedReplay(1);
+        var result = result(1, true, solved.size(), Duration.ofMinutes(1));
+        assertEquals(ReplayVerifier.Verdict.VALID, withLevels.verify(result,
+                new Replay(1, solved.moves(), solved.millis(), id)));
+        assertEquals(ReplayVerifier.Verdict.UNKNOWN_LEVEL, withLevels.verify(result,
+                new Replay(1, solved.moves(), solved.millis(), other)));
+    }
+
+    @Test
+    void verifyAll_usesLastReplay() throws IOException, InterruptedException {
+        var archive = new ReplayArchive(directory.resolve("replays.bin"));
+        var solved = solvedReplay(1);
+        archive.append(new Replay(1, new MoveDirection[]{MoveDirection.UP}, new long[]{1}));
+        archive.append(solved);
+        archive.append(solvedReplay(2));
+        archive.append(new Replay(2, new MoveDirection[]{MoveDirection.UP}, new long[]{1}));
+        var results = List.of(result(1, true, solved.size(), Duration.ofMinutes(1)),
+                result(2, true, solved.size(), Duration.ofMinutes(1)));
+
+        var report = verifier.verifyAll(results, archive);
+        assertEquals(1, report.valid());
+        assertEquals(Set.of(2L), report.invalid().keySet());
+    }
+}
@@ -0,0 +1,56 @@
+package labyrinth.solver;
+
+import labyrinth.model.LabyrinthState;
+import labyrinth.model.MoveDirection;
+import labyrinth.model.SlideTable;
+import labyrinth.model.WallGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreadthFirstSolverTest {
+
+    private Solver solver = new BreadthFirstSolver();
+
+    @Test
+    void solve_defaultState() {
+        var state = new LabyrinthState();
+        var solution = solver.solve(state);
+        assertTrue(solution.isSolvable());
+        solution.moves().forEach(state::move);
+        assertTrue(state.isGoal());
+    }
+
+    @Test
+    void solve_goalState() {
+        var solution = solver.solve(new LabyrinthState("/goalstate.json"));
+        assertEquals(List.of(), solution.moves());
+    }
+
+    @Test
+    void solve_deadEndState() {
+        var solution = solver.solve(new LabyrinthState("/deadendstate.json"));
+        assertFalse(solution.isSolvable());
+        assertEquals(-1, solution.getMoveCount());
+    }
+
+    @Test
+    void solve_fromPosition() {
+        var state = new LabyrinthState("/nongoalstate.json");
+        var goal = state.getPosition(LabyrinthState.GOAL_POSITION);
+        assertEquals(0, solver.solve(state.getLevel(), goal).getMoveCount());
+        assertEquals(solver.solve(state).moves(),
+                solver.solve(state.getLevel(), state.getPosition(LabyrinthState.BLUE_BALL)).moves());
+    }
+
+    @Test
+    void solve_emptyBoard() {
+        var slides = SlideTable.of(WallGrid.of(1000, List.of()));
+        assertEquals(List.of(MoveDirection.RIGHT, MoveDirection.DOWN),
+                solver.solve(slides, 0, 1000 * 1000 - 1).moves());
+        assertFalse(solver.solve(slides, 0, 1000 + 1).isSolvable());
+    }
+
+}
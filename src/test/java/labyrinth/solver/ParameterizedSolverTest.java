@@ -0,0 +1,53 @@
+package labyrinth.solver;
+
+import labyrinth.model.LabyrinthState;
+import labyrinth.model.RandomBoards;
+import labyrinth.model.SlideTable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterizedSolverTest {
+
+    private final Solver reference = new BreadthFirstSolver();
+
+    private void assertPath(SlideTable slides, int start, int goal, Solution solution) {
+        int cell = start;
+        for (var direction : solution.moves()) {
+            cell = slides.stop(cell, direction);
+        }
+        assertEquals(goal, cell);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SearchMode.class)
+    void solve_matchesBreadthFirst(SearchMode mode) {
+        var solver = mode.newSolver();
+        var random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            int boardSize = 2 + random.nextInt(15);
+            var slides = RandomBoards.slides(random, boardSize, 0.2);
+            int start = random.nextInt(boardSize * boardSize);
+            int goal = random.nextInt(boardSize * boardSize);
+            var expected = reference.solve(slides, start, goal);
+            var actual = solver.solve(slides, start, goal);
+            assertEquals(expected.getMoveCount(), actual.getMoveCount());
+            if (actual.isSolvable()) {
+                assertPath(slides, start, goal, actual);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(SearchMode.class)
+    void solve_states(SearchMode mode) {
+        var solver = mode.newSolver();
+        assertTrue(solver.solve(new LabyrinthState()).isSolvable());
+        assertEquals(0, solver.solve(new LabyrinthState("/goalstate.json")).getMoveCount());
+        assertFalse(solver.solve(new LabyrinthState("/deadendstate.json")).isSolvable());
+    }
+
+}
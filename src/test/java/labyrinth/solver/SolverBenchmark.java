@@ -0,0 +1,45 @@
+package labyrinth.solver;
+
+import labyrinth.model.RandomBoards;
+import labyrinth.model.SlideTable;
+
+import java.util.Random;
+
+/**
+ * Compares the search modes on large random boards. Run it with
+ * {@code mvn test-compile exec:java -Dexec.mainClass=labyrinth.solver.SolverBenchmark -Dexec.classpathScope=test}.
+ */
+public class SolverBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int boardSize = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 0.1;
+        var random = new Random(1);
+        SlideTable slides = RandomBoards.slides(random, boardSize, density);
+        int[] starts = new int[ROUNDS];
+        int[] goals = new int[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            starts[i] = random.nextInt(boardSize * boardSize);
+            goals[i] = random.nextInt(boardSize * boardSize);
+        }
+
+        System.out.printf("%dx%d board, wall density %.2f, %d searches%n", boardSize, boardSize, density, ROUNDS);
+        System.out.printf("%-14s %14s %12s%n", "mode", "expanded", "time (ms)");
+        for (var mode : SearchMode.values()) {
+            var solver = mode.newSolver();
+            for (int i = 0; i < WARMUP; i++) {
+                solver.solve(slides, starts[i], goals[i]);
+            }
+            long expanded = 0;
+            long begin = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                expanded += solver.solve(slides, starts[i], goals[i]).expanded();
+            }
+            long elapsed = System.nanoTime() - begin;
+            System.out.printf("%-14s %14d %12.2f%n", mode, expanded / ROUNDS, elapsed / 1e6 / ROUNDS);
+        }
+    }
+}
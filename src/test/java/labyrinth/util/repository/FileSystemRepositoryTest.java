@@ -0,0 +1,198 @@
+package labyrinth.util.repository;
+
+import labyrinth.results.GameResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private static FileSystemRepository<GameResult> newRepository() {
+        return new FileSystemRepository<>(GameResult.class) {
+        };
+    }
+
+    private static GameResult result(long id, int steps) {
+        return GameResult.builder()
+                .id(id)
+                .player("player" + id)
+                .solved(true)
+                .steps(steps)
+                .duration(Duration.ofSeconds(steps))
+                .build();
+    }
+
+    private static int stepsOf(Set<GameResult> results, long id) {
+        return results.stream().filter(result -> result.getId() == id).findFirst().orElseThrow().getSteps();
+    }
+
+    @Test
+    void addOne_appendsToJournal() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addOne(result(1, 10));
+        repository.addOne(result(2, 20));
+        repository.addOne(result(2, 99));
+        repository.flush();
+
+        assertFalse(file.exists());
+        assertEquals(2, Files.readAllLines(FileSystemRepository.journalOf(file)).size());
+        assertEquals(2, newRepository().loadFromFile(file).size());
+    }
+
+    @Test
+    void loadFromFile_replaysJournalOverSnapshot() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addMany(List.of(result(1, 10), result(2, 20)));
+        repository.compact();
+        repository.replaceOne(result(2, 25));
+        repository.addOne(result(3, 30));
+        repository.flush();
+
+        assertTrue(file.exists());
+        assertEquals(2, Files.readAllLines(FileSystemRepository.journalOf(file)).size());
+        var recovered = newRepository().loadFromFile(file);
+        assertEquals(3, recovered.size());
+        assertEquals(10, stepsOf(recovered, 1));
+        assertEquals(25, stepsOf(recovered, 2));
+        assertEquals(30, stepsOf(recovered, 3));
+    }
+
+    @Test
+    void open_ignoresIncompleteRecord() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addOne(result(1, 10));
+        repository.flush();
+        Files.writeString(FileSystemRepository.journalOf(file), "{\"id\":2,\"pla",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        var recovered = newRepository();
+        assertEquals(1, recovered.open(file, Duration.ofHours(1)).size());
+        recovered.addOne(result(3, 30));
+        recovered.flush();
+        assertEquals(Set.of(result(1, 10), result(3, 30)), newRepository().loadFromFile(file));
+    }
+
+    @Test
+    void close_compactsJournal() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addMany(List.of(result(1, 10), result(2, 20)));
+        repository.close();
+
+        assertFalse(repository.isOpen());
+        assertEquals(0, Files.size(FileSystemRepository.journalOf(file)));
+        assertEquals(2, newRepository().loadFromFile(file).size());
+    }
+
+    @Test
+    void clear_replacesSnapshot() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addMany(List.of(result(1, 10), result(2, 20)));
+        repository.clear();
+
+        assertTrue(newRepository().loadFromFile(file).isEmpty());
+    }
+
+    @Test
+    void loadFromFile_appliesClearRecord() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addMany(List.of(result(1, 10), result(2, 20)));
+        repository.compact();
+        repository.close();
+        Files.writeString(FileSystemRepository.journalOf(file),
+                "null\n" + JacksonJsonRepository.MAPPER.writeValueAsString(result(3, 30)) + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(Set.of(result(3, 30)), newRepository().loadFromFile(file));
+    }
+
+    @Test
+    void replaceAll_journalsClear() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addMany(List.of(result(1, 10), result(2, 20)));
+        repository.replaceAll(List.of(result(3, 30)));
+        repository.addOne(result(4, 40));
+        repository.close();
+
+        assertEquals(Set.of(result(3, 30), result(4, 40)), newRepository().loadFromFile(file));
+    }
+
+    @Test
+    void loadFromFile_missing() {
+        assertThrows(FileNotFoundException.class,
+                () -> newRepository().loadFromFile(new File(directory.toFile(), "missing.json")));
+    }
+
+    @Test
+    void writeBehind_smallQueueKeepsAllRecords() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var options = new JournalOptions(1, 4, Duration.ofMillis(10), JournalOptions.FsyncPolicy.NEVER,
+                Duration.ofHours(1));
+        var repository = newRepository();
+        repository.open(file, options);
+        for (long id = 1; id <= 100; id++) {
+            repository.addOne(result(id, (int) id));
+        }
+        repository.flush();
+
+        assertEquals(100, Files.readAllLines(FileSystemRepository.journalOf(file)).size());
+        repository.close();
+        assertEquals(100, newRepository().loadFromFile(file).size());
+    }
+
+    @Test
+    void open_sameFile() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addOne(result(1, 10));
+        assertEquals(1, repository.open(file).size());
+        repository.close();
+    }
+
+    @Test
+    void compact_keepsRecordsAfterSnapshot() throws IOException {
+        var file = directory.resolve("results.json").toFile();
+        var repository = newRepository();
+        repository.open(file, Duration.ofHours(1));
+        repository.addOne(result(1, 10));
+        repository.flush();
+        repository.compact();
+        repository.addOne(result(2, 20));
+        repository.flush();
+        repository.compact();
+
+        assertEquals(0, Files.size(FileSystemRepository.journalOf(file)));
+        repository.addOne(result(3, 30));
+        repository.close();
+        assertEquals(3, newRepository().loadFromFile(file).size());
+    }
+}
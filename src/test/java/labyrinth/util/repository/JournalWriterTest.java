@@ -0,0 +1,59 @@
+package labyrinth.util.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_blocksWhenQueueIsFull() throws Exception {
+        var path = directory.resolve("results.json.journal");
+        var options = new JournalOptions(4, 1, Duration.ofMillis(10), JournalOptions.FsyncPolicy.NEVER,
+                Duration.ofHours(1));
+        var writer = new JournalWriter(path, 0, options);
+        var appender = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                writer.append(i);
+            }
+        });
+        synchronized (writer) {
+            // holding the lock stalls the writer thread before it writes its first batch
+            appender.start();
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (appender.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(Thread.State.TIMED_WAITING, appender.getState());
+            Thread.sleep(50);
+            assertTrue(appender.isAlive());
+            assertEquals(0, Files.size(path));
+        }
+        appender.join(5000);
+        assertFalse(appender.isAlive());
+        writer.flush();
+        assertEquals(10, Files.readAllLines(path).size());
+        writer.close();
+    }
+
+    @Test
+    void append_failsAfterWriterStopped() throws IOException {
+        var options = new JournalOptions(4, 1, Duration.ofMillis(10), JournalOptions.FsyncPolicy.NEVER,
+                Duration.ofHours(1));
+        var writer = new JournalWriter(directory.resolve("results.json.journal"), 0, options);
+        writer.close();
+
+        assertThrows(UncheckedIOException.class, () -> writer.append("record"));
+        assertTimeoutPreemptively(Duration.ofSeconds(5), writer::flush);
+    }
+}